@@ -0,0 +1,100 @@
+// src/jmh/java/com/nexsys/util/NormalizedNameRegistryBenchmark.java
+package com.nexsys.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name lookups in a large registry: the allocation-free lookup against the former
+ * lowercase-and-regex normalization. Run with the gc profiler to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NormalizedNameRegistryBenchmark {
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"100000"})
+    private int size;
+
+    private Registry registry;
+    private Registry regexRegistry;
+    private String[] queries;
+    private int next;
+
+    record Entry(String id, String name) {}
+
+    static class Registry extends NormalizedNameRegistry<Entry> {
+        @Override
+        protected String getName(Entry entry) {
+            return entry.name();
+        }
+
+        @Override
+        protected String getId(Entry entry) {
+            return entry.id();
+        }
+    }
+
+    /** Registry with the normalization used before the single-pass normalizer. */
+    static class RegexRegistry extends Registry {
+        @Override
+        protected String normalizeName(String name) {
+            if (name == null) {
+                return null;
+            }
+            return name.toLowerCase(Locale.ROOT).replaceAll("\\s+", "");
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        registry = new Registry();
+        regexRegistry = new RegexRegistry();
+        for (int i = 0; i < size; i++) {
+            Entry entry = new Entry("light." + i, "Living Room Lamp " + i);
+            registry.register(entry);
+            regexRegistry.register(entry);
+        }
+
+        queries = new String[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            int id = (i * 7919) % size;
+            queries[i] = i % 2 == 0 ? "living room lamp " + id : "LIVING ROOM LAMP" + id;
+        }
+    }
+
+    private String nextQuery() {
+        return queries[next++ & (QUERY_COUNT - 1)];
+    }
+
+    @Benchmark
+    public Entry getByName() {
+        return registry.getByName(nextQuery());
+    }
+
+    @Benchmark
+    public Entry getByNameRegex() {
+        return regexRegistry.getByName(nextQuery());
+    }
+
+    @Benchmark
+    public boolean containsName() {
+        return registry.containsName(nextQuery());
+    }
+
+    @Benchmark
+    public boolean containsNameRegex() {
+        return regexRegistry.containsName(nextQuery());
+    }
+
+    @Benchmark
+    public String normalize() {
+        return NormalizedNameRegistry.normalize(nextQuery());
+    }
+}
\ No newline at end of file
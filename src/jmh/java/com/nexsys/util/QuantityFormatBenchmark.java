@@ -0,0 +1,55 @@
+// src/jmh/java/com/nexsys/util/QuantityFormatBenchmark.java
+package com.nexsys.util;
+
+import com.nexsys.util.units.PressureUnit;
+import com.nexsys.util.units.Quantity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting a sensor value: {@link Quantity#toString} and {@link Quantity#appendTo(StringBuilder)}
+ * against the {@code String.format} call they replace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuantityFormatBenchmark {
+    private static final int COUNT = 1024;
+
+    private final Quantity[] quantities = new Quantity[COUNT];
+    private final StringBuilder builder = new StringBuilder(32);
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < COUNT; i++) {
+            quantities[i] = new Quantity(950 + random.nextDouble() * 100, PressureUnit.HECTOPASCAL);
+        }
+    }
+
+    private Quantity nextQuantity() {
+        return quantities[next++ & (COUNT - 1)];
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format("%.2f %s", nextQuantity().value(), "hPa");
+    }
+
+    @Benchmark
+    public String toStringFast() {
+        return nextQuantity().toString();
+    }
+
+    @Benchmark
+    public int appendTo() {
+        builder.setLength(0);
+        return nextQuantity().appendTo(builder).length();
+    }
+}
\ No newline at end of file
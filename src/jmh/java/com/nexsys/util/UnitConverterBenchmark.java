@@ -0,0 +1,80 @@
+// src/jmh/java/com/nexsys/util/UnitConverterBenchmark.java
+package com.nexsys.util;
+
+import com.nexsys.util.units.Quantity;
+import com.nexsys.util.units.TemperatureUnit;
+import com.nexsys.util.units.Unit;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk conversion of readings: per-value {@link Quantity#convertTo} and
+ * {@link UnitConverter#convert} against {@link UnitConverter#convertAll} over arrays and
+ * direct buffers. Scores are per batch; divide by {@code size} for the cost per value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnitConverterBenchmark {
+    private static final Unit FROM = TemperatureUnit.FAHRENHEIT;
+    private static final Unit TO = TemperatureUnit.CELSIUS;
+
+    @Param({"1024", "1048576"})
+    private int size;
+
+    private double[] source;
+    private double[] target;
+    private DoubleBuffer directSource;
+    private DoubleBuffer directTarget;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        source = new double[size];
+        for (int i = 0; i < size; i++) {
+            source[i] = random.nextDouble() * 120 - 20;
+        }
+        target = new double[size];
+        directSource = ByteBuffer.allocateDirect(size * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        directSource.put(source).flip();
+        directTarget = ByteBuffer.allocateDirect(size * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+    }
+
+    @Benchmark
+    public double[] quantityPerValue() {
+        for (int i = 0; i < size; i++) {
+            target[i] = new Quantity(source[i], FROM).convertTo(TO).value();
+        }
+        return target;
+    }
+
+    @Benchmark
+    public double[] convertPerValue() {
+        for (int i = 0; i < size; i++) {
+            target[i] = UnitConverter.convert(source[i], FROM, TO);
+        }
+        return target;
+    }
+
+    @Benchmark
+    public double[] convertAll() {
+        UnitConverter.convertAll(source, FROM, TO, target);
+        return target;
+    }
+
+    @Benchmark
+    public DoubleBuffer convertAllDirectBuffer() {
+        directSource.rewind();
+        directTarget.clear();
+        UnitConverter.convertAll(directSource, FROM, TO, directTarget);
+        return directTarget;
+    }
+}
\ No newline at end of file
@@ -3,16 +3,28 @@ package com.nexsys.util;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Asynchronous operation utilities.
  */
 public final class AsyncUtils {
+    /** In ordered mode, how many items (as a multiple of the limit) may be started ahead of the oldest unemitted one. */
+    private static final int REORDER_WINDOW_FACTOR = 4;
+
     private AsyncUtils() {}
 
     /**
      * Execute multiple async tasks with concurrency limit.
+     *
+     * Tasks are started lazily from a {@link TaskScope} on a virtual thread, so at most
+     * {@code limit} of them are in flight and no future is created for a task before it
+     * starts. The results are returned in task order. The first failure cancels the running
+     * tasks and fails the result; cancelling the result cancels the running tasks.
      */
     public static <T> CompletableFuture<List<T>> gatherWithLimit(
             int limit, List<Supplier<CompletableFuture<T>>> tasks) {
@@ -20,31 +32,304 @@ public final class AsyncUtils {
         if (limit <= 0) {
             throw new IllegalArgumentException("Limit must be positive");
         }
+        Objects.requireNonNull(tasks, "Tasks cannot be null");
+
+        CompletableFuture<List<T>> result = new CompletableFuture<>();
+        Thread coordinator = Thread.ofVirtual()
+                .name("gather-with-limit")
+                .unstarted(() -> gather(limit, tasks, result));
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                coordinator.interrupt();
+            }
+        });
+        coordinator.start();
+        return result;
+    }
+
+    private static <T> void gather(int limit, List<Supplier<CompletableFuture<T>>> tasks,
+                                   CompletableFuture<List<T>> result) {
+        Object[] results = new Object[tasks.size()];
+        try (TaskScope<Indexed<T>> scope = TaskScope.open(TaskScope.Policy.FAIL_FAST, limit)) {
+            int index = 0;
+            for (Supplier<CompletableFuture<T>> taskSupplier : tasks) {
+                int taskIndex = index++;
+                if (!scope.fork(() -> new Indexed<>(taskIndex, await(taskSupplier.get())))) {
+                    break;
+                }
+                TaskScope.Completion<Indexed<T>> completion;
+                while ((completion = scope.poll()) != null) {
+                    if (!store(completion, results, result)) {
+                        return;
+                    }
+                }
+            }
+
+            TaskScope.Completion<Indexed<T>> completion;
+            while ((completion = scope.take()) != null) {
+                if (!store(completion, results, result)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            result.completeExceptionally(new CancellationException("Interrupted"));
+            return;
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<T> values = (List<T>) Arrays.asList(results);
+        result.complete(Collections.unmodifiableList(values));
+    }
+
+    private static <T> boolean store(TaskScope.Completion<Indexed<T>> completion, Object[] results,
+                                     CompletableFuture<List<T>> result) {
+        if (completion.failed()) {
+            result.completeExceptionally(completion.failure());
+            return false;
+        }
+        results[(int) completion.value().index()] = completion.value().value();
+        return true;
+    }
+
+    /**
+     * Map every element of a source through an async function, with at most {@code limit}
+     * mappings in flight, and emit the results to a sink as they complete.
+     *
+     * The source is consumed lazily on a virtual thread, so memory stays flat no matter how
+     * large it is. The sink is called from that single thread and need not be thread-safe.
+     * With {@code ordered}, results are emitted in source order through a bounded reorder
+     * buffer; a slow element then stalls the source once the buffer is full. The first
+     * failure of the source, a mapping or the sink cancels the running mappings and fails
+     * the returned future; cancelling the returned future stops the stream.
+     *
+     * @param limit maximum number of mappings in flight
+     * @param source the elements to map
+     * @param mapper the async mapping
+     * @param ordered whether to emit results in source order
+     * @param sink receives the results
+     * @return a future that completes when every result has been emitted
+     */
+    public static <S, T> CompletableFuture<Void> mapWithLimit(
+            int limit, Iterator<? extends S> source,
+            Function<? super S, ? extends CompletableFuture<? extends T>> mapper,
+            boolean ordered, Consumer<? super T> sink) {
+
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        Objects.requireNonNull(source, "Source cannot be null");
+        Objects.requireNonNull(mapper, "Mapper cannot be null");
+        Objects.requireNonNull(sink, "Sink cannot be null");
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Thread coordinator = Thread.ofVirtual()
+                .name("map-with-limit")
+                .unstarted(() -> stream(limit, source, mapper, ordered, sink, result));
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                coordinator.interrupt();
+            }
+        });
+        coordinator.start();
+        return result;
+    }
+
+    /**
+     * Variant of {@link #mapWithLimit(int, Iterator, Function, boolean, Consumer)} for streams.
+     * The stream is closed when the mapping ends.
+     */
+    public static <S, T> CompletableFuture<Void> mapWithLimit(
+            int limit, Stream<? extends S> source,
+            Function<? super S, ? extends CompletableFuture<? extends T>> mapper,
+            boolean ordered, Consumer<? super T> sink) {
+
+        Objects.requireNonNull(source, "Source cannot be null");
+        CompletableFuture<Void> result = mapWithLimit(limit, source.iterator(), mapper, ordered, sink);
+        result.whenComplete((value, error) -> source.close());
+        return result;
+    }
+
+    /**
+     * Publish the results of {@link #mapWithLimit(int, Iterator, Function, boolean, Consumer)}
+     * as a cold {@link Flow.Publisher}. Mapping starts when the subscriber subscribes, and
+     * pauses while the subscriber's buffer is full, so a slow subscriber throttles the
+     * source. The source can only be consumed once, so a second subscriber is signalled an
+     * {@link IllegalStateException}. Cancelling the subscription stops the mapping.
+     *
+     * @param limit maximum number of mappings in flight
+     * @param source the elements to map
+     * @param mapper the async mapping
+     * @param ordered whether to emit results in source order
+     * @return the publisher
+     */
+    public static <S, T> Flow.Publisher<T> publishWithLimit(
+            int limit, Iterator<? extends S> source,
+            Function<? super S, ? extends CompletableFuture<? extends T>> mapper,
+            boolean ordered) {
+
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        Objects.requireNonNull(source, "Source cannot be null");
+        Objects.requireNonNull(mapper, "Mapper cannot be null");
 
-        Semaphore semaphore = new Semaphore(limit);
-        List<CompletableFuture<T>> futures = new ArrayList<>();
-
-        for (Supplier<CompletableFuture<T>> taskSupplier : tasks) {
-            CompletableFuture<T> future = CompletableFuture
-                    .supplyAsync(() -> {
-                        try {
-                            semaphore.acquire();
-                            return taskSupplier.get();
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            throw new CompletionException(e);
-                        }
-                    })
-                    .thenCompose(f -> f)
-                    .whenComplete((result, error) -> semaphore.release());
-
-            futures.add(future);
+        AtomicBoolean subscribed = new AtomicBoolean(false);
+        return subscriber -> {
+            Objects.requireNonNull(subscriber, "Subscriber cannot be null");
+            SubmissionPublisher<T> publisher = new SubmissionPublisher<>(
+                    task -> Thread.ofVirtual().name("map-with-limit-subscriber").start(task),
+                    Flow.defaultBufferSize());
+            if (!subscribed.compareAndSet(false, true)) {
+                publisher.subscribe(subscriber);
+                publisher.closeExceptionally(new IllegalStateException("Publisher supports a single subscriber"));
+                return;
+            }
+            publisher.subscribe(subscriber);
+
+            Consumer<T> sink = item -> {
+                if (!publisher.hasSubscribers()) {
+                    throw new CancellationException("Subscription cancelled");
+                }
+                publisher.submit(item);
+            };
+            mapWithLimit(limit, source, mapper, ordered, sink).whenComplete((value, error) -> {
+                if (error == null) {
+                    publisher.close();
+                } else {
+                    publisher.closeExceptionally(error);
+                }
+            });
+        };
+    }
+
+    private static <S, T> void stream(int limit, Iterator<? extends S> source,
+                                       Function<? super S, ? extends CompletableFuture<? extends T>> mapper,
+                                       boolean ordered, Consumer<? super T> sink,
+                                       CompletableFuture<Void> result) {
+        Emitter<T> emitter = new Emitter<>(ordered ? reorderWindow(limit) : 0, sink);
+        try (TaskScope<Indexed<T>> scope = TaskScope.open(TaskScope.Policy.FAIL_FAST, limit)) {
+            long next = 0;
+            while (source.hasNext()) {
+                while (ordered && next - emitter.nextToEmit >= emitter.window()) {
+                    TaskScope.Completion<Indexed<T>> completion = scope.take();
+                    if (completion == null) {
+                        result.completeExceptionally(scope.failure());
+                        return;
+                    }
+                    if (!emitter.accept(completion, result)) {
+                        return;
+                    }
+                }
+
+                S element = source.next();
+                long index = next++;
+                if (!scope.fork(() -> new Indexed<T>(index, await(mapper.apply(element))))) {
+                    break;
+                }
+                TaskScope.Completion<Indexed<T>> completion;
+                while ((completion = scope.poll()) != null) {
+                    if (!emitter.accept(completion, result)) {
+                        return;
+                    }
+                }
+            }
+
+            TaskScope.Completion<Indexed<T>> completion;
+            while ((completion = scope.take()) != null) {
+                if (!emitter.accept(completion, result)) {
+                    return;
+                }
+            }
+            if (scope.failure() != null) {
+                result.completeExceptionally(scope.failure());
+                return;
+            }
+        } catch (InterruptedException e) {
+            result.completeExceptionally(new CancellationException("Interrupted"));
+            return;
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
         }
+        result.complete(null);
+    }
+
+    private static int reorderWindow(int limit) {
+        return limit > Integer.MAX_VALUE / REORDER_WINDOW_FACTOR ? Integer.MAX_VALUE : limit * REORDER_WINDOW_FACTOR;
+    }
 
-        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                .thenApply(v -> futures.stream()
-                        .map(CompletableFuture::join)
-                        .toList());
+    private static <T> T await(CompletableFuture<? extends T> future) throws Exception {
+        Objects.requireNonNull(future, "Mapped future cannot be null");
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw e;
+        }
+    }
+
+    private record Indexed<T>(long index, T value) {}
+
+    /**
+     * Hands completions to the sink, either directly or in index order through a ring buffer
+     * of {@code window} slots. Only used by the coordinator thread.
+     */
+    private static final class Emitter<T> {
+        private final Object[] buffer;
+        private final boolean[] present;
+        private final Consumer<? super T> sink;
+        long nextToEmit = 0;
+
+        Emitter(int window, Consumer<? super T> sink) {
+            this.buffer = window > 0 ? new Object[window] : null;
+            this.present = window > 0 ? new boolean[window] : null;
+            this.sink = sink;
+        }
+
+        int window() {
+            return buffer.length;
+        }
+
+        boolean accept(TaskScope.Completion<Indexed<T>> completion, CompletableFuture<Void> result) {
+            if (completion.failed()) {
+                result.completeExceptionally(completion.failure());
+                return false;
+            }
+            try {
+                emit(completion.value());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return false;
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void emit(Indexed<T> indexed) {
+            if (buffer == null) {
+                sink.accept(indexed.value());
+                return;
+            }
+            int slot = (int) (indexed.index() % buffer.length);
+            buffer[slot] = indexed.value();
+            present[slot] = true;
+            for (slot = (int) (nextToEmit % buffer.length); present[slot]; slot = (int) (nextToEmit % buffer.length)) {
+                T value = (T) buffer[slot];
+                buffer[slot] = null;
+                present[slot] = false;
+                nextToEmit++;
+                sink.accept(value);
+            }
+        }
     }
 
     /**
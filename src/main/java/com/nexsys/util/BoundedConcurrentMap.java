@@ -0,0 +1,289 @@
+// src/main/java/com/nexsys/util/BoundedConcurrentMap.java
+package com.nexsys.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A thread-safe map with a maximum size or weight, for caches shared between many threads.
+ *
+ * Unlike {@link LimitedSizeMap}, reads do not serialize on a single lock. The
+ * {@link EvictionPolicy} selects what is evicted once the bound is reached. FIFO and LRU
+ * maps are split into independently locked segments that share one bound, and evict the
+ * oldest entry across all segments, so eviction order is exact up to concurrent writes.
+ * TINY_LFU maps are backed by Caffeine's W-TinyLFU cache, which keeps the entries most
+ * likely to be used again and is the best choice for general caching. Entries can also
+ * expire a fixed time after they were written or last accessed.
+ *
+ * Null keys and values are not supported.
+ *
+ * <pre>{@code
+ * BoundedConcurrentMap<String, Image> thumbnails = BoundedConcurrentMap.<String, Image>builder()
+ *         .eviction(BoundedConcurrentMap.EvictionPolicy.LRU)
+ *         .maximumSize(500)
+ *         .expireAfterAccess(Duration.ofMinutes(10))
+ *         .build();
+ * }</pre>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class BoundedConcurrentMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+    private final ConcurrentMap<K, V> delegate;
+    private final Cache<K, V> cache;
+    private final SegmentedLinkedMap<K, V> segmented;
+    private final EvictionPolicy policy;
+
+    private BoundedConcurrentMap(Builder<K, V> builder) {
+        this.policy = builder.policy;
+        if (policy == EvictionPolicy.TINY_LFU) {
+            this.cache = buildCache(builder);
+            this.segmented = null;
+            this.delegate = cache.asMap();
+        } else {
+            long expireAfterWrite = builder.expireAfterWrite != null ? builder.expireAfterWrite.toNanos() : 0;
+            long expireAfterAccess = builder.expireAfterAccess != null ? builder.expireAfterAccess.toNanos() : 0;
+            this.cache = null;
+            this.segmented = new SegmentedLinkedMap<>(builder.maximum, policy == EvictionPolicy.LRU,
+                    builder.weigher, expireAfterWrite, expireAfterAccess);
+            this.delegate = segmented;
+        }
+    }
+
+    private static <K, V> Cache<K, V> buildCache(Builder<K, V> builder) {
+        Caffeine<Object, Object> caffeine = Caffeine.newBuilder().recordStats();
+        if (builder.expireAfterWrite != null) {
+            caffeine.expireAfterWrite(builder.expireAfterWrite);
+        }
+        if (builder.expireAfterAccess != null) {
+            caffeine.expireAfterAccess(builder.expireAfterAccess);
+        }
+        if (builder.weigher == null) {
+            return caffeine.maximumSize(builder.maximum).build();
+        }
+        ToIntBiFunction<? super K, ? super V> weigher = builder.weigher;
+        return caffeine.maximumWeight(builder.maximum)
+                .<K, V>weigher(weigher::applyAsInt)
+                .build();
+    }
+
+    /**
+     * Which entries are evicted once the map is full.
+     */
+    public enum EvictionPolicy {
+        /** Evict the oldest written entry. */
+        FIFO,
+        /** Evict the least recently used entry. */
+        LRU,
+        /** Evict by estimated access frequency and recency (Caffeine W-TinyLFU). */
+        TINY_LFU
+    }
+
+    /**
+     * Hit, miss and eviction counts since the map was created.
+     * Only {@link #get} and {@link #computeIfAbsent} count as hits or misses.
+     */
+    public record Stats(long hitCount, long missCount, long evictionCount) {
+        /**
+         * Get the ratio of hits to lookups, or 1.0 if there were no lookups.
+         */
+        public double hitRate() {
+            long lookups = hitCount + missCount;
+            return lookups == 0 ? 1.0 : (double) hitCount / lookups;
+        }
+    }
+
+    /**
+     * Create a new builder instance
+     */
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Builder for bounded maps. Exactly one of {@link #maximumSize} and
+     * {@link #maximumWeight} must be set.
+     */
+    public static final class Builder<K, V> {
+        private EvictionPolicy policy = EvictionPolicy.LRU;
+        private long maximum = -1;
+        private ToIntBiFunction<? super K, ? super V> weigher;
+        private Duration expireAfterWrite;
+        private Duration expireAfterAccess;
+
+        private Builder() {}
+
+        public Builder<K, V> eviction(EvictionPolicy policy) {
+            this.policy = Objects.requireNonNull(policy, "Eviction policy cannot be null");
+            return this;
+        }
+
+        public Builder<K, V> maximumSize(long maximumSize) {
+            if (maximumSize < 1) {
+                throw new IllegalArgumentException("Maximum size must be at least 1");
+            }
+            checkBoundNotSet();
+            this.maximum = maximumSize;
+            return this;
+        }
+
+        /**
+         * Bound the total weight of the entries. Weights are computed when an entry is
+         * written and must not be negative. An entry heavier than the maximum is not kept.
+         */
+        public Builder<K, V> maximumWeight(long maximumWeight, ToIntBiFunction<? super K, ? super V> weigher) {
+            if (maximumWeight < 1) {
+                throw new IllegalArgumentException("Maximum weight must be at least 1");
+            }
+            checkBoundNotSet();
+            this.maximum = maximumWeight;
+            this.weigher = Objects.requireNonNull(weigher, "Weigher cannot be null");
+            return this;
+        }
+
+        public Builder<K, V> expireAfterWrite(Duration duration) {
+            this.expireAfterWrite = checkPositive(duration);
+            return this;
+        }
+
+        public Builder<K, V> expireAfterAccess(Duration duration) {
+            this.expireAfterAccess = checkPositive(duration);
+            return this;
+        }
+
+        public BoundedConcurrentMap<K, V> build() {
+            if (maximum < 0) {
+                throw new IllegalStateException("Maximum size or weight must be set");
+            }
+            return new BoundedConcurrentMap<>(this);
+        }
+
+        private void checkBoundNotSet() {
+            if (maximum >= 0) {
+                throw new IllegalStateException("Maximum size or weight already set");
+            }
+        }
+
+        private static Duration checkPositive(Duration duration) {
+            Objects.requireNonNull(duration, "Duration cannot be null");
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("Duration must be positive");
+            }
+            return duration;
+        }
+    }
+
+    /**
+     * Get the eviction policy of this map.
+     */
+    public EvictionPolicy evictionPolicy() {
+        return policy;
+    }
+
+    /**
+     * Get the hit, miss and eviction counts.
+     */
+    public Stats stats() {
+        if (cache == null) {
+            return segmented.stats();
+        }
+        CacheStats stats = cache.stats();
+        return new Stats(stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+
+    /**
+     * Drop expired entries now instead of waiting for them to be touched.
+     */
+    public void cleanUp() {
+        if (cache == null) {
+            segmented.cleanUp();
+        } else {
+            cache.cleanUp();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        // Route through the cache so that Caffeine records the lookup
+        return cache != null ? cache.getIfPresent((K) Objects.requireNonNull(key)) : delegate.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return delegate.containsKey(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return delegate.put(key, value);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        return cache != null ? cache.get(key, mappingFunction) : delegate.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return delegate.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return delegate.compute(key, remappingFunction);
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return delegate.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return delegate.remove(key);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        return delegate.remove(key, value);
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        return delegate.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        return delegate.replace(key, value);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return delegate.entrySet();
+    }
+}
\ No newline at end of file
@@ -2,13 +2,20 @@
 package com.nexsys.util;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BinaryOperator;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Utility methods for working with collections.
  */
 public final class CollectionUtils {
+    private static final String CHUNK_TASK_NAME = "CollectionUtils.processChunks";
+
     private CollectionUtils() {
         // Utility class
     }
@@ -40,7 +47,11 @@ public final class CollectionUtils {
     }
 
     /**
-     * Break collection into chunks of specified size.
+     * Break a list into chunks of the specified size.
+     *
+     * The chunks are read-only views of the list, so no element is copied; a list without
+     * random access is copied once so that every chunk can be reached in constant time.
+     * Structurally modifying the list invalidates the chunks.
      *
      * @param list the source list
      * @param chunkSize the size of each chunk
@@ -54,19 +65,15 @@ public final class CollectionUtils {
             throw new IllegalArgumentException("Chunk size must be at least 1");
         }
 
-        // TODO: add dependency to build.gradle: implementation 'com.google.guava:guava:32.1.3-jre'
-        // Can use Guava's Lists.partition(list, chunkSize) once available
-
-        List<List<T>> chunks = new ArrayList<>();
-        for (int i = 0; i < list.size(); i += chunkSize) {
-            int end = Math.min(i + chunkSize, list.size());
-            chunks.add(new ArrayList<>(list.subList(i, end)));
+        if (!(list instanceof RandomAccess)) {
+            list = new ArrayList<>(list);
         }
-        return chunks;
+        return new ChunkedList<>(list, chunkSize);
     }
 
     /**
      * Break collection into chunks or return as single chunk if smaller than chunk size.
+     * Lists are chunked without copying, see {@link #chunk}; other collections are copied once.
      *
      * @param collection the source collection
      * @param chunkSize the size of each chunk
@@ -83,10 +90,193 @@ public final class CollectionUtils {
             return Collections.singletonList(collection);
         }
 
-        List<T> list = new ArrayList<>(collection);
-        return chunk(list, chunkSize).stream()
-                .map(chunk -> (Collection<T>) chunk)
-                .collect(Collectors.toList());
+        List<T> list = collection instanceof List<T> source ? source : new ArrayList<>(collection);
+        return Collections.unmodifiableList(chunk(list, chunkSize));
+    }
+
+    /**
+     * Get a spliterator over the chunks of a list. It splits by halving the range of
+     * chunks, so a parallel stream over it hands whole chunks to its worker threads.
+     *
+     * @param list the source list
+     * @param chunkSize the size of each chunk
+     * @param <T> the element type
+     * @return spliterator over the chunk views
+     * @throws IllegalArgumentException if chunkSize is less than 1
+     */
+    public static <T> Spliterator<List<T>> chunkSpliterator(List<T> list, int chunkSize) {
+        return chunk(list, chunkSize).spliterator();
+    }
+
+    /**
+     * Stream the chunks of a list; call {@link Stream#parallel()} to process them in parallel.
+     *
+     * @param list the source list
+     * @param chunkSize the size of each chunk
+     * @param <T> the element type
+     * @return sequential stream of chunk views
+     * @throws IllegalArgumentException if chunkSize is less than 1
+     */
+    public static <T> Stream<List<T>> chunkStream(List<T> list, int chunkSize) {
+        return StreamSupport.stream(chunkSpliterator(list, chunkSize), false);
+    }
+
+    /**
+     * Process the chunks of a list in parallel in the {@link NexsysExecutor.Lane#BACKGROUND}
+     * lane, one chunk per core at a time.
+     * See {@link #processChunksInParallel(List, int, int, NexsysExecutor.Lane, Function)}.
+     */
+    public static <T, R> CompletableFuture<List<R>> processChunksInParallel(
+            List<T> list, int chunkSize, Function<? super List<T>, ? extends R> processor) {
+        return processChunksInParallel(list, chunkSize, Runtime.getRuntime().availableProcessors(), processor);
+    }
+
+    /**
+     * Process the chunks of a list in parallel in the {@link NexsysExecutor.Lane#BACKGROUND}
+     * lane. See {@link #processChunksInParallel(List, int, int, NexsysExecutor.Lane, Function)}.
+     */
+    public static <T, R> CompletableFuture<List<R>> processChunksInParallel(
+            List<T> list, int chunkSize, int parallelism, Function<? super List<T>, ? extends R> processor) {
+        return processChunksInParallel(list, chunkSize, parallelism, NexsysExecutor.Lane.BACKGROUND, processor);
+    }
+
+    /**
+     * Process the chunks of a list in parallel in a lane of {@link NexsysExecutor}.
+     *
+     * Chunks are views (see {@link #chunk}) and are handed to the processor as blocking
+     * tasks, at most {@code parallelism} at a time. The results are returned in chunk order.
+     * The first failure fails the result and stops further chunks from starting. Chunks are
+     * never displaced from the lane's queue: under a {@code DROP_OLDEST} policy they wait
+     * for space instead.
+     *
+     * @param list the source list
+     * @param chunkSize the size of each chunk
+     * @param parallelism maximum number of chunks processed at once
+     * @param lane the executor lane the chunks run in
+     * @param processor processes one chunk
+     * @param <T> the element type
+     * @param <R> the result type
+     * @return a future with the result of every chunk
+     * @throws IllegalArgumentException if chunkSize or parallelism is less than 1
+     */
+    public static <T, R> CompletableFuture<List<R>> processChunksInParallel(
+            List<T> list, int chunkSize, int parallelism, NexsysExecutor.Lane lane,
+            Function<? super List<T>, ? extends R> processor) {
+        Objects.requireNonNull(lane, "Lane cannot be null");
+        Objects.requireNonNull(processor, "Processor cannot be null");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+
+        NexsysExecutor executor = NexsysExecutor.getInstance();
+        List<List<T>> chunks = chunk(list, chunkSize);
+        List<Supplier<CompletableFuture<R>>> tasks = new ArrayList<>(chunks.size());
+        for (List<T> chunk : chunks) {
+            tasks.add(() -> executor.submitBlocking(lane, CHUNK_TASK_NAME, () -> processor.apply(chunk), false));
+        }
+        return AsyncUtils.gatherWithLimit(parallelism, tasks);
+    }
+
+    /**
+     * Read-only list of chunk views over a random access list.
+     */
+    private static final class ChunkedList<T> extends AbstractList<List<T>> implements RandomAccess {
+        private final List<T> list;
+        private final int chunkSize;
+
+        ChunkedList(List<T> list, int chunkSize) {
+            this.list = list;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public List<T> get(int index) {
+            Objects.checkIndex(index, size());
+            int from = index * chunkSize;
+            int to = (int) Math.min((long) from + chunkSize, list.size());
+            return Collections.unmodifiableList(list.subList(from, to));
+        }
+
+        @Override
+        public int size() {
+            return (int) (((long) list.size() + chunkSize - 1) / chunkSize);
+        }
+
+        @Override
+        public Spliterator<List<T>> spliterator() {
+            return new ChunkSpliterator<>(this, 0, size());
+        }
+    }
+
+    private static final class ChunkSpliterator<T> implements Spliterator<List<T>> {
+        private final ChunkedList<T> chunks;
+        private int index;
+        private final int end;
+
+        ChunkSpliterator(ChunkedList<T> chunks, int index, int end) {
+            this.chunks = chunks;
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<T>> action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(chunks.get(index++));
+            return true;
+        }
+
+        @Override
+        public Spliterator<List<T>> trySplit() {
+            int mid = (index + end) >>> 1;
+            if (mid <= index) {
+                return null;
+            }
+            Spliterator<List<T>> prefix = new ChunkSpliterator<>(chunks, index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+    }
+
+    /**
+     * How {@link #deepMerge(Map, Map, BinaryOperator, ListMergeStrategy)} combines two lists
+     * found under the same key.
+     */
+    public enum ListMergeStrategy {
+        /** Treat lists like any other value and pass them to the conflict resolver. */
+        RESOLVE,
+        /** Use the source list. */
+        REPLACE,
+        /** Target elements followed by source elements. */
+        APPEND,
+        /** Target elements followed by the source elements not already present. */
+        APPEND_DISTINCT
+    }
+
+    /**
+     * Outcome of a deep merge.
+     *
+     * @param merged the merged map
+     * @param changedPaths key paths, from the root, of every value the merge added or changed
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    public record MergeResult<K, V>(Map<K, V> merged, List<List<Object>> changedPaths) {
+        public boolean hasChanges() {
+            return !changedPaths.isEmpty();
+        }
     }
 
     /**
@@ -98,35 +288,149 @@ public final class CollectionUtils {
      * @param <K> the key type
      * @param <V> the value type
      * @return the merged map
+     * @see #deepMerge(Map, Map, BinaryOperator, ListMergeStrategy)
      */
-    @SuppressWarnings("unchecked")
     public static <K, V> Map<K, V> deepMerge(Map<K, V> target, Map<K, V> source,
                                              BinaryOperator<V> conflictResolver) {
+        return deepMerge(target, source, conflictResolver, ListMergeStrategy.RESOLVE).merged();
+    }
+
+    /**
+     * Deep merge two maps, with conflict resolution and a strategy for lists.
+     *
+     * Nested maps present on both sides are merged; any other value from the source is
+     * added when the target has none, and otherwise combined with the target value by the
+     * list strategy or the conflict resolver. The merge walks the trees iteratively, so
+     * deep trees cannot overflow the stack. Only maps on the path to a changed value are
+     * copied: untouched subtrees of the target, and maps taken whole from the source, are
+     * shared with the result, which must therefore be treated as read-only below the top
+     * level. The top-level map is always a new map.
+     *
+     * @param target the target map to merge into
+     * @param source the source map to merge from
+     * @param conflictResolver function to resolve value conflicts
+     * @param listStrategy how to combine lists
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return the merged map and the key paths it changed
+     * @throws IllegalArgumentException if the maps are cyclic along a path both share
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> MergeResult<K, V> deepMerge(Map<K, V> target, Map<K, V> source,
+                                                     BinaryOperator<V> conflictResolver,
+                                                     ListMergeStrategy listStrategy) {
         Objects.requireNonNull(target, "Target map cannot be null");
         Objects.requireNonNull(source, "Source map cannot be null");
         Objects.requireNonNull(conflictResolver, "Conflict resolver cannot be null");
+        Objects.requireNonNull(listStrategy, "List strategy cannot be null");
+
+        BinaryOperator<Object> resolver = (BinaryOperator<Object>) conflictResolver;
+        List<List<Object>> changedPaths = new ArrayList<>();
+        Deque<MergeFrame> stack = new ArrayDeque<>();
+        MergeFrame root = new MergeFrame(null, null, (Map<Object, Object>) target, (Map<Object, Object>) source);
+        root.merged = new LinkedHashMap<>(target);
+        stack.push(root);
 
-        Map<K, V> result = new HashMap<>(target);
+        while (!stack.isEmpty()) {
+            MergeFrame frame = stack.peek();
+            if (!frame.entries.hasNext()) {
+                stack.pop();
+                if (frame.parent != null && frame.merged != null) {
+                    frame.parent.put(frame.key, frame.merged);
+                }
+                continue;
+            }
 
-        source.forEach((key, sourceValue) -> {
-            V targetValue = result.get(key);
+            Map.Entry<Object, Object> entry = frame.entries.next();
+            Object key = entry.getKey();
+            Object sourceValue = entry.getValue();
+            Object targetValue = frame.target.get(key);
 
             if (targetValue == null) {
-                result.put(key, sourceValue);
-            } else if (targetValue instanceof Map && sourceValue instanceof Map) {
-                // Recursive merge for nested maps
-                Map<Object, Object> merged = deepMerge(
-                        (Map<Object, Object>) targetValue,
-                        (Map<Object, Object>) sourceValue,
-                        (BinaryOperator<Object>) conflictResolver
-                );
-                result.put(key, (V) merged);
+                if (sourceValue != null || !frame.target.containsKey(key)) {
+                    frame.put(key, sourceValue);
+                    changedPaths.add(frame.path(key));
+                }
+            } else if (targetValue instanceof Map<?, ?> targetMap && sourceValue instanceof Map<?, ?> sourceMap) {
+                checkNotOnPath(frame, targetMap, sourceMap, key);
+                stack.push(new MergeFrame(frame, key, (Map<Object, Object>) targetMap,
+                        (Map<Object, Object>) sourceMap));
             } else {
-                // Use conflict resolver for non-map values
-                result.put(key, conflictResolver.apply(targetValue, sourceValue));
+                Object mergedValue = targetValue instanceof List<?> targetList
+                        && sourceValue instanceof List<?> sourceList
+                        && listStrategy != ListMergeStrategy.RESOLVE
+                        ? mergeLists(targetList, sourceList, listStrategy)
+                        : resolver.apply(targetValue, sourceValue);
+                if (!Objects.equals(mergedValue, targetValue)) {
+                    frame.put(key, mergedValue);
+                    changedPaths.add(frame.path(key));
+                }
             }
-        });
+        }
 
-        return result;
+        return new MergeResult<>((Map<K, V>) root.merged, Collections.unmodifiableList(changedPaths));
+    }
+
+    private static void checkNotOnPath(MergeFrame frame, Object targetMap, Object sourceMap, Object key) {
+        for (MergeFrame ancestor = frame; ancestor != null; ancestor = ancestor.parent) {
+            if (ancestor.target == targetMap && ancestor.source == sourceMap) {
+                throw new IllegalArgumentException("Cyclic maps cannot be merged, cycle at " + frame.path(key));
+            }
+        }
+    }
+
+    private static Object mergeLists(List<?> target, List<?> source, ListMergeStrategy strategy) {
+        return switch (strategy) {
+            case REPLACE -> source;
+            case APPEND -> {
+                List<Object> merged = new ArrayList<>(target.size() + source.size());
+                merged.addAll(target);
+                merged.addAll(source);
+                yield merged;
+            }
+            case APPEND_DISTINCT -> {
+                Set<Object> merged = new LinkedHashSet<>(target);
+                merged.addAll(source);
+                yield new ArrayList<>(merged);
+            }
+            case RESOLVE -> throw new IllegalArgumentException("Lists are resolved by the conflict resolver");
+        };
+    }
+
+    /**
+     * One level of an in-progress deep merge. The level's map is copied on its first change.
+     */
+    private static final class MergeFrame {
+        final MergeFrame parent;
+        final Object key;
+        final Map<Object, Object> target;
+        final Map<Object, Object> source;
+        final Iterator<Map.Entry<Object, Object>> entries;
+        Map<Object, Object> merged;
+
+        MergeFrame(MergeFrame parent, Object key, Map<Object, Object> target, Map<Object, Object> source) {
+            this.parent = parent;
+            this.key = key;
+            this.target = target;
+            this.source = source;
+            this.entries = source.entrySet().iterator();
+        }
+
+        void put(Object key, Object value) {
+            if (merged == null) {
+                merged = new LinkedHashMap<>(target);
+            }
+            merged.put(key, value);
+        }
+
+        List<Object> path(Object key) {
+            List<Object> path = new ArrayList<>();
+            path.add(key);
+            for (MergeFrame frame = this; frame.parent != null; frame = frame.parent) {
+                path.add(frame.key);
+            }
+            Collections.reverse(path);
+            return Collections.unmodifiableList(path);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,298 @@
+// src/main/java/com/nexsys/util/Dispatcher.java
+package com.nexsys.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Signal dispatcher keyed by {@link SignalType}.
+ *
+ * Handlers connect either to an exact signal or to a family of signals described by the
+ * format string passed to {@link SignalType#format}, e.g. {@code "device_%s_updated"}.
+ * The handler array of every signal that has handlers is resolved once, when it is first
+ * sent or when a handler connects or disconnects, so that {@link #send} is a plain array
+ * walk. Connecting and disconnecting take a lock and rebuild the affected arrays.
+ *
+ * Signals without handlers are not cached, so per-device signals nobody listens to do not
+ * accumulate and stay collectable from the {@link SignalType} intern pool. Sending one only
+ * compares its name with the literal parts of the connected format strings, without taking
+ * the lock or allocating.
+ */
+public final class Dispatcher {
+    private static final Logger LOGGER = Logger.getLogger(Dispatcher.class.getName());
+    private static final Pattern FORMAT_SPECIFIER =
+            Pattern.compile("%(\\d+\\$)?([-#+ 0,(<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])");
+    private static final Handler[] NO_HANDLERS = new Handler[0];
+    private static final Family[] NO_FAMILIES = new Family[0];
+
+    private final Object lock = new Object();
+    private final Map<SignalType<?>, List<Handler>> exactHandlers = new HashMap<>();
+    private final Map<String, Family> families = new LinkedHashMap<>();
+    // Only signals with at least one handler; every signal with exact handlers is present
+    private final Map<SignalType<?>, Handler[]> resolved = new ConcurrentHashMap<>();
+    private volatile Family[] familySnapshot = NO_FAMILIES;
+
+    /**
+     * Connect a handler to an exact signal.
+     *
+     * @param signal the signal to connect to
+     * @param handler the handler receiving the payload
+     * @param <P> the payload type
+     * @return a callback that disconnects the handler again
+     */
+    public <P> Runnable connect(SignalType<P> signal, Consumer<? super P> handler) {
+        Objects.requireNonNull(signal, "Signal cannot be null");
+        Objects.requireNonNull(handler, "Handler cannot be null");
+
+        @SuppressWarnings("unchecked")
+        Handler target = new Handler((s, payload) -> handler.accept((P) payload));
+
+        synchronized (lock) {
+            exactHandlers.computeIfAbsent(signal, k -> new ArrayList<>()).add(target);
+            storeLocked(signal, resolveLocked(signal));
+        }
+
+        return () -> {
+            synchronized (lock) {
+                List<Handler> handlers = exactHandlers.get(signal);
+                if (handlers != null && handlers.remove(target)) {
+                    if (handlers.isEmpty()) {
+                        exactHandlers.remove(signal);
+                    }
+                    storeLocked(signal, resolveLocked(signal));
+                }
+            }
+        };
+    }
+
+    /**
+     * Connect a handler to every signal generated from the given format string, e.g. all
+     * per-device signals created with {@code SignalType.format("device_%s_updated", id)}.
+     *
+     * @param format the format string the signals are generated from
+     * @param handler the handler receiving the concrete signal and its payload
+     * @param <P> the payload type
+     * @return a callback that disconnects the handler again
+     */
+    public <P> Runnable connectFamily(String format, BiConsumer<? super SignalType<P>, ? super P> handler) {
+        Objects.requireNonNull(format, "Format cannot be null");
+        Objects.requireNonNull(handler, "Handler cannot be null");
+
+        @SuppressWarnings("unchecked")
+        Handler target = new Handler((signal, payload) -> handler.accept((SignalType<P>) signal, (P) payload));
+
+        synchronized (lock) {
+            Family family = families.get(format);
+            if (family == null) {
+                family = new Family(literals(format));
+                families.put(format, family);
+                familySnapshot = families.values().toArray(NO_FAMILIES);
+                // Signals resolved later pick the family up themselves
+                for (SignalType<?> signal : resolved.keySet()) {
+                    if (family.matches(signal.toString())) {
+                        family.signals.add(signal);
+                    }
+                }
+            }
+            family.handlers.add(target);
+            refreshFamilyLocked(family);
+        }
+
+        return () -> {
+            synchronized (lock) {
+                Family family = families.get(format);
+                if (family != null && family.handlers.remove(target)) {
+                    if (family.handlers.isEmpty()) {
+                        families.remove(format);
+                        familySnapshot = families.values().toArray(NO_FAMILIES);
+                    }
+                    refreshFamilyLocked(family);
+                }
+            }
+        };
+    }
+
+    /**
+     * Send a signal to all connected handlers on the calling thread.
+     *
+     * @param signal the signal to send
+     * @param payload the payload passed to the handlers
+     * @param <P> the payload type
+     */
+    public <P> void send(SignalType<P> signal, P payload) {
+        Handler[] handlers = resolved.get(signal);
+        if (handlers == null) {
+            handlers = resolve(signal);
+        }
+
+        for (Handler handler : handlers) {
+            try {
+                handler.target.accept(signal, payload);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error in handler for signal '" + signal + "'", e);
+            }
+        }
+    }
+
+    /**
+     * Get the number of handlers a signal is currently dispatched to.
+     *
+     * @param signal the signal
+     * @return the number of exact and family handlers
+     */
+    public int handlerCount(SignalType<?> signal) {
+        Handler[] handlers = resolved.get(signal);
+        return handlers != null ? handlers.length : resolve(signal).length;
+    }
+
+    /**
+     * Resolve a signal that has no cached handler array, and so no exact handlers.
+     */
+    private Handler[] resolve(SignalType<?> signal) {
+        if (!matchesAnyFamily(signal)) {
+            return NO_HANDLERS;
+        }
+        synchronized (lock) {
+            Handler[] handlers = resolved.get(signal);
+            if (handlers == null) {
+                handlers = resolveLocked(signal);
+                storeLocked(signal, handlers);
+            }
+            return handlers;
+        }
+    }
+
+    private boolean matchesAnyFamily(SignalType<?> signal) {
+        String name = signal.toString();
+        for (Family family : familySnapshot) {
+            if (family.matches(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collect the handlers of a signal, and remember it in every family it matches.
+     */
+    private Handler[] resolveLocked(SignalType<?> signal) {
+        List<Handler> matched = new ArrayList<>(exactHandlers.getOrDefault(signal, List.of()));
+        String name = signal.toString();
+        for (Family family : families.values()) {
+            if (family.matches(name)) {
+                matched.addAll(family.handlers);
+                family.signals.add(signal);
+            }
+        }
+        return matched.isEmpty() ? NO_HANDLERS : matched.toArray(NO_HANDLERS);
+    }
+
+    private void storeLocked(SignalType<?> signal, Handler[] handlers) {
+        if (handlers.length == 0) {
+            resolved.remove(signal);
+        } else {
+            resolved.put(signal, handlers);
+        }
+    }
+
+    /**
+     * Rebuild the arrays of the cached signals matching a family after its handlers changed.
+     */
+    private void refreshFamilyLocked(Family family) {
+        for (SignalType<?> signal : List.copyOf(family.signals)) {
+            storeLocked(signal, resolveLocked(signal));
+        }
+        if (family.handlers.isEmpty()) {
+            family.signals.clear();
+        }
+    }
+
+    /**
+     * Get the number of signals with a cached handler array.
+     */
+    int resolvedCount() {
+        return resolved.size();
+    }
+
+    /**
+     * Split a format string into the literal text between its conversions, which match any
+     * text. {@code %%} and {@code %n} are literal text.
+     */
+    private static String[] literals(String format) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        Matcher matcher = FORMAT_SPECIFIER.matcher(format);
+        int last = 0;
+        while (matcher.find()) {
+            literal.append(format, last, matcher.start());
+            String conversion = matcher.group(6);
+            if (conversion.equals("%")) {
+                literal.append('%');
+            } else if (conversion.equals("n")) {
+                literal.append(System.lineSeparator());
+            } else {
+                literals.add(literal.toString());
+                literal.setLength(0);
+            }
+            last = matcher.end();
+        }
+        literal.append(format, last, format.length());
+        literals.add(literal.toString());
+        return literals.toArray(new String[0]);
+    }
+
+    /**
+     * The handlers of one format string, and the cached signals whose arrays include them.
+     *
+     * @param literals the literal text of the format string, split at its conversions
+     */
+    private record Family(String[] literals, List<Handler> handlers, Set<SignalType<?>> signals) {
+        Family(String[] literals) {
+            this(literals, new ArrayList<>(), new HashSet<>());
+        }
+
+        /**
+         * Check whether the format string can produce a name: the first literal is a prefix,
+         * the last a suffix, and the others occur in order in between. Taking the leftmost
+         * occurrence of each is enough, since the conversions between them match any text.
+         */
+        boolean matches(String name) {
+            String prefix = literals[0];
+            int last = literals.length - 1;
+            if (last == 0) {
+                return name.equals(prefix);
+            }
+            String suffix = literals[last];
+            int end = name.length() - suffix.length();
+            if (end < prefix.length() || !name.startsWith(prefix) || !name.endsWith(suffix)) {
+                return false;
+            }
+            int from = prefix.length();
+            for (int i = 1; i < last; i++) {
+                int at = name.indexOf(literals[i], from);
+                if (at < 0 || at + literals[i].length() > end) {
+                    return false;
+                }
+                from = at + literals[i].length();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Identity wrapper so that the same callback connected twice is disconnected independently.
+     */
+    private static final class Handler {
+        final BiConsumer<SignalType<?>, Object> target;
+
+        Handler(BiConsumer<SignalType<?>, Object> target) {
+            this.target = target;
+        }
+    }
+}
\ No newline at end of file
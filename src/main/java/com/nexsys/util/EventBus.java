@@ -0,0 +1,258 @@
+// src/main/java/com/nexsys/util/EventBus.java
+package com.nexsys.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Event bus that routes events by {@link EventType}.
+ *
+ * Listeners are kept in per-type copy-on-write arrays: registering or removing a
+ * listener copies the array, while firing reads the current array without locking
+ * or allocating.
+ *
+ * Bursty event types can be consumed through coalescing listeners
+ * ({@link #listenBatched}, {@link #listenLatest}) which merge events per key over a
+ * time window before delivering them.
+ */
+public final class EventBus {
+    private static final Logger LOGGER = Logger.getLogger(EventBus.class.getName());
+
+    private final Map<EventType<?>, Listener<?>[]> listeners = new ConcurrentHashMap<>();
+    private final NexsysExecutor executor;
+
+    /**
+     * Create an event bus that dispatches asynchronous events on the shared {@link NexsysExecutor}.
+     */
+    public EventBus() {
+        this(NexsysExecutor.getInstance());
+    }
+
+    EventBus(NexsysExecutor executor) {
+        this.executor = Objects.requireNonNull(executor, "Executor cannot be null");
+    }
+
+    /**
+     * Callback invoked for every event of the type it was registered for.
+     *
+     * @param <D> the event data type
+     */
+    @FunctionalInterface
+    public interface Listener<D extends Map<String, ?>> {
+        void onEvent(EventType<D> type, D data);
+    }
+
+    /**
+     * Callback invoked with all events of one key that arrived within a coalescing window.
+     *
+     * @param <D> the event data type
+     */
+    @FunctionalInterface
+    public interface BatchListener<D extends Map<String, ?>> {
+        void onBatch(EventType<D> type, List<D> events);
+    }
+
+    /**
+     * Register a listener for the given event type.
+     *
+     * @param type the event type to listen for
+     * @param listener the listener to invoke
+     * @param <D> the event data type
+     * @return a callback that removes the listener again
+     */
+    public <D extends Map<String, ?>> Runnable listen(EventType<D> type, Listener<D> listener) {
+        Objects.requireNonNull(type, "Event type cannot be null");
+        Objects.requireNonNull(listener, "Listener cannot be null");
+
+        listeners.compute(type, (key, current) -> {
+            if (current == null) {
+                return new Listener<?>[] {listener};
+            }
+            Listener<?>[] updated = new Listener<?>[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, current.length);
+            updated[current.length] = listener;
+            return updated;
+        });
+
+        return () -> unlisten(type, listener);
+    }
+
+    /**
+     * Register a listener that receives events in batches. The first event for a key opens a
+     * window; every event with the same key arriving before the window closes is added to the
+     * batch, which is then delivered in arrival order on a virtual thread.
+     *
+     * @param type the event type to listen for
+     * @param window how long to collect events after the first one of a batch
+     * @param keyFunction extracts the coalescing key from the event data, e.g. the entity id
+     * @param listener the listener to invoke with each batch
+     * @param <D> the event data type
+     * @return a callback that removes the listener again; batches already open are still delivered
+     */
+    public <D extends Map<String, ?>> Runnable listenBatched(EventType<D> type, Duration window,
+                                                            Function<? super D, ?> keyFunction,
+                                                            BatchListener<D> listener) {
+        Objects.requireNonNull(listener, "Listener cannot be null");
+        return listen(type, new Coalescer<>(executor, window, keyFunction, false, listener));
+    }
+
+    /**
+     * Register a listener that only receives the latest event per key within each window.
+     * Earlier events of the same key in the window are dropped.
+     *
+     * @param type the event type to listen for
+     * @param window how long to collect events after the first one of a window
+     * @param keyFunction extracts the coalescing key from the event data, e.g. the entity id
+     * @param listener the listener to invoke with the latest event
+     * @param <D> the event data type
+     * @return a callback that removes the listener again; windows already open are still delivered
+     */
+    public <D extends Map<String, ?>> Runnable listenLatest(EventType<D> type, Duration window,
+                                                           Function<? super D, ?> keyFunction,
+                                                           Listener<D> listener) {
+        Objects.requireNonNull(listener, "Listener cannot be null");
+        BatchListener<D> latest = (eventType, events) -> listener.onEvent(eventType, events.getLast());
+        return listen(type, new Coalescer<>(executor, window, keyFunction, true, latest));
+    }
+
+    /**
+     * Fire an event, invoking every listener on the calling thread.
+     *
+     * @param type the event type
+     * @param data the event data
+     * @param <D> the event data type
+     */
+    public <D extends Map<String, ?>> void fire(EventType<D> type, D data) {
+        Listener<?>[] current = listeners.get(type);
+        if (current != null) {
+            dispatch(current, type, data);
+        }
+    }
+
+    /**
+     * Fire an event, invoking the listeners on a virtual thread of the {@link NexsysExecutor}.
+     * Listeners registered at the time of the call receive the event, in registration order.
+     *
+     * @param type the event type
+     * @param data the event data
+     * @param <D> the event data type
+     */
+    public <D extends Map<String, ?>> void fireAsync(EventType<D> type, D data) {
+        Listener<?>[] current = listeners.get(type);
+        if (current != null) {
+            executor.execute(() -> dispatch(current, type, data));
+        }
+    }
+
+    /**
+     * Get the number of listeners registered for an event type.
+     *
+     * @param type the event type
+     * @return the number of listeners
+     */
+    public int listenerCount(EventType<?> type) {
+        Listener<?>[] current = listeners.get(type);
+        return current == null ? 0 : current.length;
+    }
+
+    private void unlisten(EventType<?> type, Listener<?> listener) {
+        listeners.computeIfPresent(type, (key, current) -> {
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == listener) {
+                    if (current.length == 1) {
+                        return null;
+                    }
+                    Listener<?>[] updated = new Listener<?>[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    return updated;
+                }
+            }
+            return current;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <D extends Map<String, ?>> void dispatch(Listener<?>[] current, EventType<D> type, D data) {
+        for (Listener<?> listener : current) {
+            try {
+                ((Listener<D>) listener).onEvent(type, data);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error in listener for event '" + type + "'", e);
+            }
+        }
+    }
+
+    /**
+     * Listener that collects events per key and flushes them through
+     * {@link NexsysExecutor#runLater} once the window of the first event has elapsed.
+     */
+    private static final class Coalescer<D extends Map<String, ?>> implements Listener<D> {
+        private static final Object NULL_KEY = new Object();
+
+        private final Map<Object, Batch<D>> pending = new ConcurrentHashMap<>();
+        private final NexsysExecutor executor;
+        private final Duration window;
+        private final Function<? super D, ?> keyFunction;
+        private final boolean latestOnly;
+        private final BatchListener<D> listener;
+
+        Coalescer(NexsysExecutor executor, Duration window, Function<? super D, ?> keyFunction,
+                  boolean latestOnly, BatchListener<D> listener) {
+            this.executor = executor;
+            this.window = Objects.requireNonNull(window, "Window cannot be null");
+            this.keyFunction = Objects.requireNonNull(keyFunction, "Key function cannot be null");
+            this.latestOnly = latestOnly;
+            this.listener = listener;
+            if (window.isNegative()) {
+                throw new IllegalArgumentException("Window cannot be negative");
+            }
+        }
+
+        @Override
+        public void onEvent(EventType<D> type, D data) {
+            Object extracted = keyFunction.apply(data);
+            Object key = extracted != null ? extracted : NULL_KEY;
+
+            Batch<D> batch = pending.compute(key, (k, current) -> {
+                Batch<D> target = current != null ? current : new Batch<>();
+                if (latestOnly) {
+                    target.events.clear();
+                }
+                target.events.add(data);
+                return target;
+            });
+
+            if (batch.scheduled.compareAndSet(false, true)) {
+                executor.runLater(() -> flush(type, key), window);
+            }
+        }
+
+        private void flush(EventType<D> type, Object key) {
+            // Removal is atomic with compute(), so no event can be added to the batch afterwards
+            Batch<D> batch = pending.remove(key);
+            if (batch == null) {
+                return;
+            }
+            try {
+                listener.onBatch(type, Collections.unmodifiableList(batch.events));
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error in coalescing listener for event '" + type + "'", e);
+            }
+        }
+    }
+
+    private static final class Batch<D> {
+        final List<D> events = new ArrayList<>();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+    }
+}
\ No newline at end of file
@@ -7,13 +7,20 @@ import java.util.Objects;
 /**
  * Generic wrapper around a String event type.
  *
+ * Instances are interned: equal values share one instance, so equality is usually an
+ * identity check and the hash is computed once. Unused instances are garbage collected.
+ *
  * @param <D> the data type, must extend Map
  */
 public final class EventType<D extends Map<String, ?>> implements CharSequence {
+    private static final TypeInterner<EventType<?>> INTERNER = new TypeInterner<>(EventType::new);
+
     private final String value;
+    private final int hash;
 
     private EventType(String value) {
-        this.value = Objects.requireNonNull(value, "Event value cannot be null");
+        this.value = value;
+        this.hash = value.hashCode();
     }
 
     /**
@@ -21,10 +28,12 @@ public final class EventType<D extends Map<String, ?>> implements CharSequence {
      *
      * @param value the event value
      * @param <D> the data type
-     * @return a new EventType instance
+     * @return the shared EventType instance for the value
      */
+    @SuppressWarnings("unchecked")
     public static <D extends Map<String, ?>> EventType<D> of(String value) {
-        return new EventType<>(value);
+        Objects.requireNonNull(value, "Event value cannot be null");
+        return (EventType<D>) INTERNER.intern(value);
     }
 
     /**
@@ -33,10 +42,10 @@ public final class EventType<D extends Map<String, ?>> implements CharSequence {
      * @param format the format string
      * @param args the format arguments
      * @param <D> the data type
-     * @return a new formatted EventType instance
+     * @return the shared EventType instance for the formatted value
      */
     public static <D extends Map<String, ?>> EventType<D> format(String format, Object... args) {
-        return new EventType<>(String.format(format, args));
+        return of(TypeInterner.format(format, args));
     }
 
     @Override
@@ -63,11 +72,11 @@ public final class EventType<D extends Map<String, ?>> implements CharSequence {
     public boolean equals(Object obj) {
         if (this == obj) return true;
         if (!(obj instanceof EventType<?> other)) return false;
-        return value.equals(other.value);
+        return hash == other.hash && value.equals(other.value);
     }
 
     @Override
     public int hashCode() {
-        return value.hashCode();
+        return hash;
     }
 }
\ No newline at end of file
@@ -0,0 +1,249 @@
+// src/main/java/com/nexsys/util/ExecutionLane.java
+package com.nexsys.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs tasks on an underlying executor with a concurrency cap and a bounded FIFO queue.
+ *
+ * At most {@code maxConcurrency} workers run at a time; a worker keeps taking tasks from the
+ * queue in submission order until it is empty. When the queue is full, the lane's
+ * {@link NexsysExecutor.BackpressurePolicy} decides whether the submitter blocks, is rejected,
+ * or displaces the oldest queued task. Tasks submitted without a drop callback are never
+ * displaced: {@code DROP_OLDEST} skips them, and when only such tasks are queued, a new
+ * task without a drop callback waits for space and any other is rejected.
+ *
+ * A task submitted to a lane while one of its tasks is running, from that task's thread or
+ * from a thread it started, runs at once on a new thread of the underlying executor,
+ * outside the cap and the queue. Otherwise a task waiting for a nested task would deadlock
+ * once every slot is taken by such waiters. Threads started by a task stop bypassing the
+ * cap when that task completes.
+ */
+final class ExecutionLane {
+    private static final Logger LOGGER = Logger.getLogger(ExecutionLane.class.getName());
+    private static final InheritableThreadLocal<Scope> SCOPE = new InheritableThreadLocal<>();
+
+    private final String name;
+    private final Executor executor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Deque<Entry> queue = new ArrayDeque<>();
+    private volatile NexsysExecutor.LaneConfig config;
+
+    // Guarded by lock
+    private int running = 0;
+
+    ExecutionLane(String name, NexsysExecutor.LaneConfig config, Executor executor) {
+        this.name = name;
+        this.config = Objects.requireNonNull(config, "Config cannot be null");
+        this.executor = executor;
+    }
+
+    /**
+     * Submit a task.
+     *
+     * @param task the task
+     * @param onDrop called when the queued task is displaced under {@code DROP_OLDEST}, or
+     *        null if the task must not be displaced
+     * @throws RejectedExecutionException if the lane rejects the task, or the submitter was
+     *         interrupted while waiting for queue space
+     */
+    void submit(Runnable task, Runnable onDrop) {
+        Scope parent = SCOPE.get();
+        if (parent != null && parent.lane == this && parent.open) {
+            executor.execute(() -> runScoped(task));
+            return;
+        }
+
+        Entry entry = new Entry(task, onDrop);
+        Entry dropped = null;
+
+        lock.lock();
+        try {
+            while (true) {
+                NexsysExecutor.LaneConfig current = config;
+                if (running < current.maxConcurrency()) {
+                    running++;
+                    break;
+                }
+                if (queue.size() < current.queueCapacity()) {
+                    queue.addLast(entry);
+                    return;
+                }
+                switch (current.policy()) {
+                    case REJECT -> throw new RejectedExecutionException("Lane " + name + " is saturated");
+                    case DROP_OLDEST -> {
+                        dropped = pollOldestDroppable();
+                        if (dropped != null) {
+                            queue.addLast(entry);
+                        } else if (onDrop != null) {
+                            throw new RejectedExecutionException("Lane " + name + " is saturated");
+                        } else {
+                            awaitSpace();
+                            continue;
+                        }
+                    }
+                    case BLOCK -> {
+                        awaitSpace();
+                        continue;
+                    }
+                }
+                break;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (dropped != null) {
+            dropped.onDrop.run();
+            return;
+        }
+        startWorker(entry);
+    }
+
+    private Entry pollOldestDroppable() {
+        Iterator<Entry> entries = queue.iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            if (entry.onDrop != null) {
+                entries.remove();
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private void awaitSpace() {
+        try {
+            notFull.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for lane " + name, e);
+        }
+    }
+
+    /**
+     * Replace the configuration. A higher concurrency cap starts queued tasks immediately;
+     * a lower one takes effect as running tasks complete.
+     *
+     * @param config the new configuration
+     */
+    void configure(NexsysExecutor.LaneConfig config) {
+        Objects.requireNonNull(config, "Config cannot be null");
+        Deque<Entry> toStart = new ArrayDeque<>();
+        lock.lock();
+        try {
+            this.config = config;
+            while (running < config.maxConcurrency() && !queue.isEmpty()) {
+                running++;
+                toStart.add(queue.pollFirst());
+            }
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        toStart.forEach(this::startWorker);
+    }
+
+    NexsysExecutor.LaneConfig config() {
+        return config;
+    }
+
+    int running() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int queued() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    ExecutorMetrics.LaneSnapshot snapshot() {
+        lock.lock();
+        try {
+            return new ExecutorMetrics.LaneSnapshot(running, queue.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void startWorker(Entry first) {
+        try {
+            executor.execute(() -> work(first));
+        } catch (RejectedExecutionException e) {
+            lock.lock();
+            try {
+                running--;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private void work(Entry first) {
+        for (Entry entry = first; entry != null; entry = next()) {
+            runScoped(entry.task);
+        }
+    }
+
+    private void runScoped(Runnable task) {
+        Scope previous = SCOPE.get();
+        Scope scope = new Scope(this);
+        SCOPE.set(scope);
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Uncaught exception in lane " + name, e);
+        } finally {
+            scope.open = false;
+            SCOPE.set(previous);
+        }
+    }
+
+    private Entry next() {
+        lock.lock();
+        try {
+            Entry next = running <= config.maxConcurrency() ? queue.pollFirst() : null;
+            if (next == null) {
+                running--;
+            }
+            notFull.signal();
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entry(Runnable task, Runnable onDrop) {}
+
+    /**
+     * A running task of a lane, inherited by the threads the task starts.
+     */
+    private static final class Scope {
+        final ExecutionLane lane;
+        volatile boolean open = true;
+
+        Scope(ExecutionLane lane) {
+            this.lane = lane;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,352 @@
+// src/main/java/com/nexsys/util/ExecutorMetrics.java
+package com.nexsys.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Counters and latency histograms for tasks run by {@link NexsysExecutor}.
+ *
+ * Every task is recorded under a name: either the one passed to the executor, or the
+ * class that submitted it (lambda suffixes are stripped). Per name, the histograms track
+ * the scheduling lag (actual start minus the intended start) and the execution time.
+ * Once {@value #DEFAULT_MAX_TASK_NAMES} names are tracked, tasks with new names are
+ * recorded under {@value #OTHER_TASKS}, so names built per device do not grow the
+ * metrics without bound.
+ *
+ * The running and queued tasks of every {@link NexsysExecutor.Lane} are reported alongside,
+ * to show which lane is saturated.
+ */
+public final class ExecutorMetrics implements ExecutorMetricsMXBean {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    static final int DEFAULT_MAX_TASK_NAMES = 1_000;
+    static final String OTHER_TASKS = "other";
+    private static final ClassValue<String> TASK_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return taskName(type);
+        }
+    };
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final Map<String, TaskRecorder> tasks = new ConcurrentHashMap<>();
+    private final IntSupplier pendingTimers;
+    private final Supplier<Map<String, LaneSnapshot>> lanes;
+    private final int maxTaskNames;
+
+    ExecutorMetrics(IntSupplier pendingTimers) {
+        this(pendingTimers, Map::of, DEFAULT_MAX_TASK_NAMES);
+    }
+
+    ExecutorMetrics(IntSupplier pendingTimers, int maxTaskNames) {
+        this(pendingTimers, Map::of, maxTaskNames);
+    }
+
+    ExecutorMetrics(IntSupplier pendingTimers, Supplier<Map<String, LaneSnapshot>> lanes, int maxTaskNames) {
+        this.pendingTimers = pendingTimers;
+        this.lanes = lanes;
+        this.maxTaskNames = maxTaskNames;
+    }
+
+    /**
+     * Point-in-time copy of all executor metrics.
+     *
+     * @param submitted tasks handed to the executor
+     * @param completed tasks that returned normally
+     * @param failed tasks that threw
+     * @param rejected tasks refused, e.g. during shutdown
+     * @param inFlight tasks currently running
+     * @param pendingTimers delayed tasks waiting to fire
+     * @param lanes per lane task counts, from highest to lowest priority
+     * @param tasks per task name statistics, sorted by name
+     */
+    public record Snapshot(long submitted, long completed, long failed, long rejected, long inFlight,
+                           int pendingTimers, Map<String, LaneSnapshot> lanes,
+                           Map<String, TaskSnapshot> tasks) {}
+
+    /**
+     * Load of one execution lane.
+     *
+     * @param running tasks holding one of the lane's slots
+     * @param queued tasks waiting for a slot
+     */
+    public record LaneSnapshot(int running, int queued) {}
+
+    /**
+     * Statistics of all tasks recorded under one name.
+     *
+     * @param name the task name
+     * @param count finished executions
+     * @param failed executions that threw
+     * @param schedulingLag distribution of actual start minus intended start
+     * @param executionTime distribution of run time
+     */
+    public record TaskSnapshot(String name, long count, long failed,
+                               Distribution schedulingLag, Distribution executionTime) {}
+
+    /**
+     * Summary of a latency histogram. Percentiles are accurate to the histogram bucket
+     * width, about 25% of the value.
+     */
+    public record Distribution(long count, double meanMillis, double p50Millis, double p99Millis,
+                               double maxMillis) {}
+
+    /**
+     * Take a snapshot of the current metrics.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        Map<String, TaskSnapshot> taskSnapshots = new TreeMap<>();
+        tasks.forEach((name, recorder) -> taskSnapshots.put(name, recorder.snapshot(name)));
+        return new Snapshot(submitted.sum(), completed.sum(), failed.sum(), rejected.sum(), inFlight.sum(),
+                pendingTimers.getAsInt(), lanes.get(), Collections.unmodifiableMap(taskSnapshots));
+    }
+
+    @Override
+    public long getSubmittedTasks() {
+        return submitted.sum();
+    }
+
+    @Override
+    public long getCompletedTasks() {
+        return completed.sum();
+    }
+
+    @Override
+    public long getFailedTasks() {
+        return failed.sum();
+    }
+
+    @Override
+    public long getRejectedTasks() {
+        return rejected.sum();
+    }
+
+    @Override
+    public long getInFlightTasks() {
+        return inFlight.sum();
+    }
+
+    @Override
+    public int getPendingTimers() {
+        return pendingTimers.getAsInt();
+    }
+
+    @Override
+    public Map<String, Integer> getLaneRunningTasks() {
+        Map<String, Integer> running = new TreeMap<>();
+        lanes.get().forEach((name, lane) -> running.put(name, lane.running()));
+        return running;
+    }
+
+    @Override
+    public Map<String, Integer> getLaneQueuedTasks() {
+        Map<String, Integer> queued = new TreeMap<>();
+        lanes.get().forEach((name, lane) -> queued.put(name, lane.queued()));
+        return queued;
+    }
+
+    @Override
+    public Map<String, Long> getTaskCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        tasks.forEach((name, recorder) -> counts.put(name, recorder.executionTime.count()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Double> getSchedulingLagP99Millis() {
+        Map<String, Double> lags = new TreeMap<>();
+        tasks.forEach((name, recorder) -> lags.put(name, recorder.schedulingLag.percentileMillis(0.99)));
+        return lags;
+    }
+
+    @Override
+    public Map<String, Double> getExecutionTimeP99Millis() {
+        Map<String, Double> times = new TreeMap<>();
+        tasks.forEach((name, recorder) -> times.put(name, recorder.executionTime.percentileMillis(0.99)));
+        return times;
+    }
+
+    void recordRejected() {
+        rejected.increment();
+    }
+
+    /**
+     * Wrap a task so that its execution is recorded.
+     *
+     * @param name the task name, or null to derive it from the task class
+     * @param task the task
+     * @param intendedStartNanos the {@link System#nanoTime()} at which the task should start
+     * @return the instrumented task
+     */
+    Runnable instrument(String name, Runnable task, long intendedStartNanos) {
+        TaskRecorder recorder = recorder(name, task);
+        submitted.increment();
+        return () -> {
+            long start = recorder.start(intendedStartNanos);
+            boolean success = false;
+            try {
+                task.run();
+                success = true;
+            } finally {
+                recorder.finish(start, success);
+            }
+        };
+    }
+
+    /**
+     * Wrap a callable so that its execution is recorded.
+     *
+     * @param name the task name, or null to derive it from the task class
+     * @param task the task
+     * @param intendedStartNanos the {@link System#nanoTime()} at which the task should start
+     * @param <T> the result type
+     * @return the instrumented task
+     */
+    <T> Callable<T> instrument(String name, Callable<T> task, long intendedStartNanos) {
+        TaskRecorder recorder = recorder(name, task);
+        submitted.increment();
+        return () -> {
+            long start = recorder.start(intendedStartNanos);
+            boolean success = false;
+            try {
+                T result = task.call();
+                success = true;
+                return result;
+            } finally {
+                recorder.finish(start, success);
+            }
+        };
+    }
+
+    private TaskRecorder recorder(String name, Object task) {
+        String taskName = name != null ? name : TASK_NAMES.get(task.getClass());
+        TaskRecorder recorder = tasks.get(taskName);
+        if (recorder != null) {
+            return recorder;
+        }
+        if (tasks.size() >= maxTaskNames) {
+            // Racing submitters may overshoot by a few names, which is harmless
+            taskName = OTHER_TASKS;
+        }
+        return tasks.computeIfAbsent(taskName, n -> new TaskRecorder());
+    }
+
+    private static String taskName(Class<?> type) {
+        String className = type.getName();
+        int lambda = className.indexOf("$$Lambda");
+        return lambda >= 0 ? className.substring(0, lambda) : className;
+    }
+
+    private final class TaskRecorder {
+        final Histogram schedulingLag = new Histogram();
+        final Histogram executionTime = new Histogram();
+        final LongAdder failures = new LongAdder();
+
+        long start(long intendedStartNanos) {
+            long start = System.nanoTime();
+            schedulingLag.record(start - intendedStartNanos);
+            inFlight.increment();
+            return start;
+        }
+
+        void finish(long start, boolean success) {
+            executionTime.record(System.nanoTime() - start);
+            inFlight.decrement();
+            if (success) {
+                completed.increment();
+            } else {
+                failed.increment();
+                failures.increment();
+            }
+        }
+
+        TaskSnapshot snapshot(String name) {
+            return new TaskSnapshot(name, executionTime.count(), failures.sum(),
+                    schedulingLag.distribution(), executionTime.distribution());
+        }
+    }
+
+    /**
+     * Lock-free log-linear histogram of nanosecond values: every power of two is split into
+     * four buckets.
+     */
+    static final class Histogram {
+        private static final int SUB_BUCKETS = 4;
+        private static final int BUCKETS = SUB_BUCKETS + 61 * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder total = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            counts.incrementAndGet(bucket(value));
+            total.increment();
+            sum.add(value);
+            if (value > max.get()) {
+                max.accumulateAndGet(value, Math::max);
+            }
+        }
+
+        long count() {
+            return total.sum();
+        }
+
+        double percentileMillis(double percentile) {
+            long count = total.sum();
+            if (count == 0) {
+                return 0.0;
+            }
+            long rank = (long) Math.ceil(percentile * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(midpoint(i), max.get()) / NANOS_PER_MILLI;
+                }
+            }
+            return max.get() / NANOS_PER_MILLI;
+        }
+
+        Distribution distribution() {
+            long count = total.sum();
+            double mean = count == 0 ? 0.0 : sum.sum() / (double) count / NANOS_PER_MILLI;
+            return new Distribution(count, mean, percentileMillis(0.5), percentileMillis(0.99),
+                    max.get() / NANOS_PER_MILLI);
+        }
+
+        static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+            return SUB_BUCKETS + (exponent - 2) * SUB_BUCKETS + sub;
+        }
+
+        static long midpoint(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + 2;
+            int sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+            long width = 1L << (exponent - 2);
+            return (SUB_BUCKETS + sub) * width + width / 2;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+// src/main/java/com/nexsys/util/ExecutorMetricsMXBean.java
+package com.nexsys.util;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link ExecutorMetrics}, registered as {@code com.nexsys:type=NexsysExecutor}.
+ */
+public interface ExecutorMetricsMXBean {
+    long getSubmittedTasks();
+
+    long getCompletedTasks();
+
+    long getFailedTasks();
+
+    long getRejectedTasks();
+
+    long getInFlightTasks();
+
+    int getPendingTimers();
+
+    /**
+     * @return number of tasks holding a slot, per lane
+     */
+    Map<String, Integer> getLaneRunningTasks();
+
+    /**
+     * @return number of tasks waiting for a slot, per lane
+     */
+    Map<String, Integer> getLaneQueuedTasks();
+
+    /**
+     * @return number of executions per task name
+     */
+    Map<String, Long> getTaskCounts();
+
+    /**
+     * @return 99th percentile of the delay between the scheduled and the actual start, per task name
+     */
+    Map<String, Double> getSchedulingLagP99Millis();
+
+    /**
+     * @return 99th percentile of the execution time, per task name
+     */
+    Map<String, Double> getExecutionTimeP99Millis();
+}
\ No newline at end of file
@@ -21,24 +21,38 @@ public final class HttpClientUtils {
     private HttpClientUtils() {}
 
     /**
-     * Perform async GET request.
+     * Perform async GET request in the {@link NexsysExecutor.Lane#BACKGROUND} lane.
      */
     public static CompletableFuture<HttpResponse<String>> get(String url, Duration timeout) {
+        return get(url, timeout, NexsysExecutor.Lane.BACKGROUND);
+    }
+
+    /**
+     * Perform async GET request in the given executor lane.
+     */
+    public static CompletableFuture<HttpResponse<String>> get(String url, Duration timeout, NexsysExecutor.Lane lane) {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .timeout(timeout)
                 .GET()
                 .build();
 
-        return NexsysExecutor.getInstance().submitBlocking(() ->
+        return NexsysExecutor.getInstance().submitBlocking(lane, () ->
                 CLIENT.send(request, HttpResponse.BodyHandlers.ofString())
         );
     }
 
     /**
-     * Perform async POST request with JSON body.
+     * Perform async POST request with JSON body in the {@link NexsysExecutor.Lane#BACKGROUND} lane.
      */
     public static CompletableFuture<HttpResponse<String>> postJson(String url, Object body) {
+        return postJson(url, body, NexsysExecutor.Lane.BACKGROUND);
+    }
+
+    /**
+     * Perform async POST request with JSON body in the given executor lane.
+     */
+    public static CompletableFuture<HttpResponse<String>> postJson(String url, Object body, NexsysExecutor.Lane lane) {
         try {
             String json = MAPPER.writeValueAsString(body);
 
@@ -48,7 +62,7 @@ public final class HttpClientUtils {
                     .POST(HttpRequest.BodyPublishers.ofString(json))
                     .build();
 
-            return NexsysExecutor.getInstance().submitBlocking(() ->
+            return NexsysExecutor.getInstance().submitBlocking(lane, () ->
                     CLIENT.send(request, HttpResponse.BodyHandlers.ofString())
             );
         } catch (Exception e) {
@@ -6,6 +6,8 @@ import java.util.*;
 /**
  * A LinkedHashMap with a maximum size that evicts entries in FIFO order.
  *
+ * Not thread-safe. Use {@link BoundedConcurrentMap} for maps shared between threads.
+ *
  * @param <K> the key type
  * @param <V> the value type
  */
@@ -1,62 +1,224 @@
 // src/main/java/com/nexsys/util/LoopGuard.java
 package com.nexsys.util;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
  * Guards against blocking operations on event-loop threads.
+ *
+ * Event-loop membership is a thread-local flag, so {@link #protect} costs a single
+ * thread-local read on other threads. In {@link Mode#STRICT} mode a violation throws; in
+ * {@link Mode#REPORT_ONLY} mode the operation runs anyway and violations are only counted,
+ * with the caller captured and logged for at most one violation per sample interval. The
+ * mode and interval default to the {@code nexsys.loopguard.mode} and
+ * {@code nexsys.loopguard.sampleMillis} system properties.
+ *
+ * Blocking calls that are not wrapped in {@code protect} are caught by the watchdog: an
+ * event loop calls {@link #heartbeat()} when it starts a unit of work and {@link #idle()}
+ * before it waits for the next one. Once {@link #startWatchdog} has been called, a thread
+ * that stays busy longer than the threshold is reported with its stack.
  */
 public final class LoopGuard {
     private static final Logger LOGGER = Logger.getLogger(LoopGuard.class.getName());
-    private static final Set<Long> EVENT_LOOP_THREADS = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<LoopWatchdog.Heartbeat> EVENT_LOOP_THREAD = new ThreadLocal<>();
+    private static final Set<LoopWatchdog.Heartbeat> HEARTBEATS = ConcurrentHashMap.newKeySet();
     private static final Set<String> REPORTED_VIOLATIONS = ConcurrentHashMap.newKeySet();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final int MAX_CALLER_FRAMES = 8;
+    private static final LongAdder VIOLATIONS = new LongAdder();
+    private static final AtomicLong NEXT_SAMPLE_NANOS = new AtomicLong(System.nanoTime());
+
+    private static volatile Mode mode = initialMode();
+    private static volatile long sampleIntervalNanos =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("nexsys.loopguard.sampleMillis", 1000));
+    private static LoopWatchdog watchdog;
 
     private LoopGuard() {}
 
+    private static Mode initialMode() {
+        String value = System.getProperty("nexsys.loopguard.mode", Mode.STRICT.name());
+        try {
+            return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warning("Unknown loop guard mode '" + value + "', using STRICT");
+            return Mode.STRICT;
+        }
+    }
+
+    /**
+     * How violations are handled.
+     */
+    public enum Mode {
+        /** Throw an {@link IllegalStateException}. */
+        STRICT,
+        /** Run the operation, count the violation and log a rate-limited sample. */
+        REPORT_ONLY
+    }
+
+    /**
+     * An event-loop thread that stayed busy longer than the watchdog threshold.
+     *
+     * @param threadName the stalled thread
+     * @param stalledFor how long the thread had been busy when the stall was detected
+     * @param location the first application frame of the stack
+     * @param stackTrace the stack at detection time
+     * @param occurrences how many stalls were seen at this location
+     */
+    public record StallReport(String threadName, Duration stalledFor, String location,
+                              StackTraceElement[] stackTrace, int occurrences) {
+        public boolean repeatOffender() {
+            return occurrences > 1;
+        }
+    }
+
     /**
      * Mark current thread as event-loop thread.
      */
     public static void markAsEventLoopThread() {
-        EVENT_LOOP_THREADS.add(Thread.currentThread().threadId());
+        if (EVENT_LOOP_THREAD.get() == null) {
+            LoopWatchdog.Heartbeat heartbeat = new LoopWatchdog.Heartbeat(Thread.currentThread());
+            EVENT_LOOP_THREAD.set(heartbeat);
+            HEARTBEATS.add(heartbeat);
+        }
     }
 
     /**
      * Unmark thread as event-loop thread.
      */
     public static void unmarkEventLoopThread() {
-        EVENT_LOOP_THREADS.remove(Thread.currentThread().threadId());
+        LoopWatchdog.Heartbeat heartbeat = EVENT_LOOP_THREAD.get();
+        if (heartbeat != null) {
+            HEARTBEATS.remove(heartbeat);
+            EVENT_LOOP_THREAD.remove();
+        }
+    }
+
+    /**
+     * Signal that the current event-loop thread starts a unit of work. No-op on other threads.
+     */
+    public static void heartbeat() {
+        LoopWatchdog.Heartbeat heartbeat = EVENT_LOOP_THREAD.get();
+        if (heartbeat != null) {
+            heartbeat.busySince = System.nanoTime();
+        }
+    }
+
+    /**
+     * Signal that the current event-loop thread is waiting for work. No-op on other threads.
+     */
+    public static void idle() {
+        LoopWatchdog.Heartbeat heartbeat = EVENT_LOOP_THREAD.get();
+        if (heartbeat != null) {
+            heartbeat.busySince = LoopWatchdog.Heartbeat.IDLE;
+        }
+    }
+
+    /**
+     * Start the watchdog, logging stalls longer than the threshold. Replaces a running watchdog.
+     */
+    public static void startWatchdog(Duration threshold) {
+        startWatchdog(threshold, LoopWatchdog::log);
+    }
+
+    /**
+     * Start the watchdog, passing stalls longer than the threshold to the reporter.
+     * Replaces a running watchdog.
+     */
+    public static synchronized void startWatchdog(Duration threshold, Consumer<StallReport> reporter) {
+        Objects.requireNonNull(threshold, "Threshold cannot be null");
+        Objects.requireNonNull(reporter, "Reporter cannot be null");
+        if (threshold.isNegative() || threshold.isZero()) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        stopWatchdog();
+        watchdog = new LoopWatchdog(threshold, reporter, HEARTBEATS);
+    }
+
+    /**
+     * Stop the watchdog, if running.
+     */
+    public static synchronized void stopWatchdog() {
+        if (watchdog != null) {
+            watchdog.stop();
+            watchdog = null;
+        }
+    }
+
+    /**
+     * Set how violations are handled.
+     */
+    public static void setMode(Mode newMode) {
+        mode = Objects.requireNonNull(newMode, "Mode cannot be null");
+    }
+
+    public static Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Set the minimum time between two logged samples in {@link Mode#REPORT_ONLY} mode.
+     */
+    public static void setSampleIntervalMillis(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Sample interval cannot be negative");
+        }
+        sampleIntervalNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Get the number of violations seen since startup, in either mode.
+     */
+    public static long violationCount() {
+        return VIOLATIONS.sum();
     }
 
     /**
      * Protect against blocking operations on event-loop thread.
      */
     public static void protect(String operationName, Runnable operation) {
-        if (isEventLoopThread()) {
-            String key = operationName + "-" + getCallerInfo();
-            if (REPORTED_VIOLATIONS.add(key)) {
-                LOGGER.severe("Blocking operation '" + operationName +
-                        "' called on event-loop thread at " + getCallerInfo());
+        if (EVENT_LOOP_THREAD.get() != null) {
+            VIOLATIONS.increment();
+            if (mode == Mode.STRICT) {
+                report(operationName);
+                throw new IllegalStateException(
+                        "Blocking operation '" + operationName + "' called on event-loop thread");
+            }
+            if (shouldSample()) {
+                report(operationName);
             }
-            throw new IllegalStateException(
-                    "Blocking operation '" + operationName + "' called on event-loop thread");
         }
 
         operation.run();
     }
 
-    private static boolean isEventLoopThread() {
-        return EVENT_LOOP_THREADS.contains(Thread.currentThread().threadId());
+    private static boolean shouldSample() {
+        long now = System.nanoTime();
+        long next = NEXT_SAMPLE_NANOS.get();
+        return now - next >= 0 && NEXT_SAMPLE_NANOS.compareAndSet(next, now + sampleIntervalNanos);
     }
 
-    private static String getCallerInfo() {
-        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
-        if (stack.length >= 4) {
-            StackTraceElement caller = stack[3];
-            return caller.getClassName() + "." + caller.getMethodName() +
-                    "(" + caller.getFileName() + ":" + caller.getLineNumber() + ")";
+    private static void report(String operationName) {
+        String callerInfo = getCallerInfo();
+        if (REPORTED_VIOLATIONS.add(operationName + "-" + callerInfo)) {
+            LOGGER.severe("Blocking operation '" + operationName +
+                    "' called on event-loop thread at " + callerInfo);
         }
-        return "unknown";
+    }
+
+    private static String getCallerInfo() {
+        return STACK_WALKER.walk(frames -> frames
+                .limit(MAX_CALLER_FRAMES)
+                .filter(frame -> !frame.getClassName().equals(LoopGuard.class.getName()))
+                .findFirst()
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName() +
+                        "(" + frame.getFileName() + ":" + frame.getLineNumber() + ")")
+                .orElse("unknown"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+// src/main/java/com/nexsys/util/LoopWatchdog.java
+package com.nexsys.util;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background checker for stalled event-loop threads, started by {@link LoopGuard#startWatchdog}.
+ *
+ * Every event-loop thread owns a {@link Heartbeat} that records when its current unit of
+ * work began. A thread that has been busy longer than the threshold is reported once per
+ * unit of work, with its stack captured at detection time. Stalls are keyed by the first
+ * application frame of the stack, so a location that stalls again is flagged as a repeat
+ * offender. The watchdog runs on a platform thread so that it keeps running even when
+ * virtual thread carriers are pinned.
+ */
+final class LoopWatchdog {
+    private static final Logger LOGGER = Logger.getLogger(LoopWatchdog.class.getName());
+    private static final int MAX_OFFENDERS = 1024;
+    private static final int MAX_LOGGED_FRAMES = 32;
+
+    private final long thresholdNanos;
+    private final Consumer<LoopGuard.StallReport> reporter;
+    private final Collection<Heartbeat> heartbeats;
+    private final Map<String, AtomicInteger> offenders = new ConcurrentHashMap<>();
+    private final Thread thread;
+    private volatile boolean stopped = false;
+
+    LoopWatchdog(Duration threshold, Consumer<LoopGuard.StallReport> reporter, Collection<Heartbeat> heartbeats) {
+        this.thresholdNanos = threshold.toNanos();
+        this.reporter = reporter;
+        this.heartbeats = heartbeats;
+        this.thread = new Thread(this::run, "Nexsys-LoopWatchdog");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    void stop() {
+        stopped = true;
+        thread.interrupt();
+    }
+
+    private void run() {
+        long intervalNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), thresholdNanos / 2);
+        while (!stopped) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(intervalNanos);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            check();
+        }
+    }
+
+    void check() {
+        long now = System.nanoTime();
+        for (Heartbeat heartbeat : heartbeats) {
+            if (!heartbeat.thread.isAlive()) {
+                heartbeats.remove(heartbeat);
+                continue;
+            }
+            long busySince = heartbeat.busySince;
+            if (busySince == Heartbeat.IDLE || busySince == heartbeat.reportedBusySince
+                    || now - busySince < thresholdNanos) {
+                continue;
+            }
+
+            StackTraceElement[] stack = heartbeat.thread.getStackTrace();
+            if (heartbeat.busySince != busySince) {
+                // The thread moved on while the stack was captured
+                continue;
+            }
+            heartbeat.reportedBusySince = busySince;
+            report(heartbeat.thread, Duration.ofNanos(now - busySince), stack);
+        }
+    }
+
+    private void report(Thread stalled, Duration stalledFor, StackTraceElement[] stack) {
+        String location = location(stack);
+        AtomicInteger count = offenders.get(location);
+        if (count == null && offenders.size() < MAX_OFFENDERS) {
+            count = offenders.computeIfAbsent(location, key -> new AtomicInteger());
+        }
+        int occurrences = count != null ? count.incrementAndGet() : 1;
+
+        LoopGuard.StallReport stallReport = new LoopGuard.StallReport(
+                stalled.getName(), stalledFor, location, stack, occurrences);
+        try {
+            reporter.accept(stallReport);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Stall reporter failed", e);
+        }
+    }
+
+    /**
+     * Default reporter, logging the stall with the captured stack.
+     */
+    static void log(LoopGuard.StallReport report) {
+        StringBuilder message = new StringBuilder()
+                .append("Event-loop thread '").append(report.threadName())
+                .append("' stalled for ").append(report.stalledFor().toMillis()).append(" ms at ")
+                .append(report.location());
+        if (report.repeatOffender()) {
+            message.append(" (repeat offender, ").append(report.occurrences()).append(" stalls)");
+        }
+        StackTraceElement[] stack = report.stackTrace();
+        for (int i = 0; i < Math.min(stack.length, MAX_LOGGED_FRAMES); i++) {
+            message.append(System.lineSeparator()).append("\tat ").append(stack[i]);
+        }
+        LOGGER.warning(message.toString());
+    }
+
+    private static String location(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (!className.startsWith("java.") && !className.startsWith("jdk.")
+                    && !className.startsWith("sun.") && !className.startsWith("com.sun.")) {
+                return frame.toString();
+            }
+        }
+        return stack.length > 0 ? stack[0].toString() : "unknown";
+    }
+
+    /**
+     * Busy state of one event-loop thread. Written by the owning thread, read by the watchdog.
+     */
+    static final class Heartbeat {
+        static final long IDLE = Long.MIN_VALUE;
+
+        final Thread thread;
+        volatile long busySince = IDLE;
+
+        // Owned by the watchdog thread
+        long reportedBusySince = IDLE;
+
+        Heartbeat(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,165 @@
+// src/main/java/com/nexsys/util/NameSearchIndex.java
+package com.nexsys.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Prefix and edit-distance index over normalized names, used by {@link NormalizedNameRegistry}.
+ *
+ * Prefix queries are range scans of a sorted map. Similarity queries use padded trigrams:
+ * every edit changes at most three trigrams of a name, so a name within distance {@code k}
+ * of the query misses at most {@code 3k} of the query's distinct trigrams, and must contain
+ * one of its {@code 3k + 1} rarest ones. Only names in those posting lists that pass the
+ * length filter are verified with a bounded Levenshtein distance. When the query has no more
+ * than {@code 3k} trigrams (short queries), names are filtered by length only.
+ *
+ * Updates and queries may run concurrently; queries are weakly consistent with updates.
+ *
+ * @param <T> the type of indexed entries
+ */
+final class NameSearchIndex<T> {
+    private static final char PAD_START = '\u0002';
+    private static final char PAD_END = '\u0003';
+
+    private final ConcurrentSkipListMap<String, T> names = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+
+    void add(String normalizedName, T entry) {
+        if (names.put(normalizedName, entry) == null) {
+            for (String gram : trigrams(normalizedName)) {
+                postings.compute(gram, (g, set) -> {
+                    if (set == null) {
+                        set = ConcurrentHashMap.newKeySet();
+                    }
+                    set.add(normalizedName);
+                    return set;
+                });
+            }
+        }
+    }
+
+    void remove(String normalizedName) {
+        if (names.remove(normalizedName) != null) {
+            for (String gram : trigrams(normalizedName)) {
+                postings.computeIfPresent(gram, (g, set) -> {
+                    set.remove(normalizedName);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        }
+    }
+
+    void clear() {
+        names.clear();
+        postings.clear();
+    }
+
+    /**
+     * Get the entries whose normalized name starts with the normalized prefix, in name order.
+     */
+    List<T> findByPrefix(String prefix, int limit) {
+        ConcurrentNavigableMap<String, T> range = prefix.isEmpty()
+                ? names
+                : names.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        List<T> result = new ArrayList<>(Math.min(limit, 16));
+        for (T entry : range.values()) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    /**
+     * Get the entries within {@code maxDistance} edits of the normalized query, closest first,
+     * then in name order.
+     */
+    List<NormalizedNameRegistry.NameMatch<T>> findSimilar(String query, int maxDistance, int limit) {
+        Set<String> queryGrams = trigrams(query);
+        int minShared = queryGrams.size() - 3 * maxDistance;
+
+        Collection<String> candidates;
+        if (minShared > 0) {
+            // A name missing from all of the 3k + 1 rarest query trigrams shares too few
+            List<Set<String>> lists = new ArrayList<>(queryGrams.size());
+            for (String gram : queryGrams) {
+                lists.add(postings.getOrDefault(gram, Set.of()));
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            candidates = new HashSet<>();
+            for (int i = 0; i < lists.size() && i <= 3 * maxDistance; i++) {
+                candidates.addAll(lists.get(i));
+            }
+        } else {
+            candidates = names.keySet();
+        }
+
+        int[] previous = new int[query.length() + 1];
+        int[] current = new int[query.length() + 1];
+        List<Scored<T>> scored = new ArrayList<>();
+        for (String name : candidates) {
+            if (Math.abs(name.length() - query.length()) > maxDistance) {
+                continue;
+            }
+            int distance = boundedDistance(query, name, maxDistance, previous, current);
+            if (distance <= maxDistance) {
+                T entry = names.get(name);
+                if (entry != null) {
+                    scored.add(new Scored<>(name, new NormalizedNameRegistry.NameMatch<>(entry, distance)));
+                }
+            }
+        }
+
+        scored.sort(Comparator.<Scored<T>>comparingInt(s -> s.match.distance()).thenComparing(s -> s.name));
+        List<NormalizedNameRegistry.NameMatch<T>> result = new ArrayList<>(Math.min(limit, scored.size()));
+        for (int i = 0; i < scored.size() && i < limit; i++) {
+            result.add(scored.get(i).match);
+        }
+        return result;
+    }
+
+    /** The distinct trigrams of a name padded with two start and two end markers. */
+    static Set<String> trigrams(String name) {
+        String padded = "" + PAD_START + PAD_START + name + PAD_END + PAD_END;
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Levenshtein distance between {@code a} and {@code b}, or {@code max + 1} as soon as it
+     * is known to exceed {@code max}. The row arrays must hold {@code a.length() + 1} values.
+     */
+    static int boundedDistance(String a, String b, int max, int[] previous, int[] current) {
+        int n = a.length();
+        for (int i = 0; i <= n; i++) {
+            previous[i] = i;
+        }
+        for (int j = 1; j <= b.length(); j++) {
+            char c = b.charAt(j - 1);
+            current[0] = j;
+            int rowMin = j;
+            for (int i = 1; i <= n; i++) {
+                int cost = a.charAt(i - 1) == c ? 0 : 1;
+                int value = Math.min(Math.min(current[i - 1], previous[i]) + 1, previous[i - 1] + cost);
+                current[i] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[n], max + 1);
+    }
+
+    private record Scored<T>(String name, NormalizedNameRegistry.NameMatch<T> match) {}
+}
\ No newline at end of file
@@ -1,32 +1,54 @@
 // src/main/java/com/nexsys/util/NexsysExecutor.java
 package com.nexsys.util;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.*;
 import java.util.logging.Logger;
 
 /**
  * Singleton executor service for the Nexsys system.
  * Uses virtual threads when available.
+ *
+ * Delayed tasks are kept in a hierarchical {@link TimingWheel} with O(1) scheduling and
+ * cancellation; when a timer fires, its task is handed to the virtual thread executor.
+ * The tick resolution defaults to 10 ms and can be set with the
+ * {@code nexsys.executor.tickMillis} system property.
+ *
+ * Every task is instrumented by {@link ExecutorMetrics}, available through {@link #metrics()}
+ * and over JMX as {@value #MBEAN_NAME}. Tasks can be given a name so that their latencies
+ * are reported separately; unnamed tasks are reported under the class that created them.
+ * The running and queued tasks of every lane are reported too.
+ *
+ * Blocking operations run in priority {@link Lane}s. Each lane has its own concurrency cap,
+ * FIFO queue and {@link BackpressurePolicy}, so a flood of background polls cannot starve
+ * user-triggered actions. A task submitted from a task running in the same lane starts at
+ * once outside the lane's cap, so waiting for it cannot deadlock on a full lane. Blocking I/O
+ * should be submitted to the lane of what it serves; {@link HttpClientUtils} defaults to
+ * {@link Lane#BACKGROUND}.
  */
 public final class NexsysExecutor {
     private static final Logger LOGGER = Logger.getLogger(NexsysExecutor.class.getName());
+    private static final long DEFAULT_TICK_MILLIS = 10;
+    static final String MBEAN_NAME = "com.nexsys:type=NexsysExecutor";
     private static final NexsysExecutor INSTANCE = new NexsysExecutor();
 
-    private final ScheduledThreadPoolExecutor scheduler;
+    private final TimingWheel timers;
     private final ExecutorService virtualExecutor;
+    private final ExecutorMetrics metrics;
+    private final ExecutionLane[] lanes;
     private volatile boolean shuttingDown = false;
 
     private NexsysExecutor() {
-        ThreadFactory schedulerFactory = r -> {
-            Thread t = new Thread(r, "Nexsys-Scheduler");
-            t.setDaemon(true);
-            return t;
-        };
-
-        this.scheduler = new ScheduledThreadPoolExecutor(2, schedulerFactory);
-        this.scheduler.setRemoveOnCancelPolicy(true);
+        Duration tick = Duration.ofMillis(Long.getLong("nexsys.executor.tickMillis", DEFAULT_TICK_MILLIS));
+        this.timers = new TimingWheel(tick, "Nexsys-Scheduler");
 
         // Try to create virtual thread executor if available (Java 21+)
         ExecutorService executor;
@@ -37,50 +59,273 @@ public final class NexsysExecutor {
             executor = ForkJoinPool.commonPool();
         }
         this.virtualExecutor = executor;
+        this.metrics = new ExecutorMetrics(timers::pendingCount, this::laneSnapshots,
+                ExecutorMetrics.DEFAULT_MAX_TASK_NAMES);
+        this.lanes = new ExecutionLane[Lane.values().length];
+        for (Lane lane : Lane.values()) {
+            lanes[lane.ordinal()] = new ExecutionLane(lane.name(), lane.defaultConfig, executor);
+        }
+        registerMBean();
+    }
+
+    /**
+     * Execution lanes for blocking operations, from highest to lowest priority.
+     */
+    public enum Lane {
+        /** Safety-relevant work such as alarms and locks. Never drops tasks. */
+        CRITICAL(new LaneConfig(64, 1_000, BackpressurePolicy.BLOCK)),
+        /**
+         * User-triggered actions; the default for {@link #submitBlocking(Callable)}. Rejects
+         * tasks when saturated, so that submitting never parks the caller.
+         */
+        INTERACTIVE(new LaneConfig(256, 10_000, BackpressurePolicy.REJECT)),
+        /** Polling and other periodic work, where a newer task supersedes an old one. */
+        BACKGROUND(new LaneConfig(16, 1_000, BackpressurePolicy.DROP_OLDEST));
+
+        private final LaneConfig defaultConfig;
+
+        Lane(LaneConfig defaultConfig) {
+            this.defaultConfig = defaultConfig;
+        }
+
+        public LaneConfig defaultConfig() {
+            return defaultConfig;
+        }
+    }
+
+    /**
+     * What a lane does with a new task when its queue is full.
+     */
+    public enum BackpressurePolicy {
+        /** Block the submitter until there is space. */
+        BLOCK,
+        /** Fail the new task with a {@link RejectedExecutionException}. */
+        REJECT,
+        /** Fail the oldest queued task with a {@link RejectedExecutionException} and queue the new one. */
+        DROP_OLDEST
+    }
+
+    /**
+     * Limits of a lane.
+     *
+     * @param maxConcurrency maximum number of tasks running at once
+     * @param queueCapacity maximum number of tasks waiting for a slot
+     * @param policy what to do when the queue is full
+     */
+    public record LaneConfig(int maxConcurrency, int queueCapacity, BackpressurePolicy policy) {
+        public LaneConfig {
+            if (maxConcurrency < 1) {
+                throw new IllegalArgumentException("Max concurrency must be positive");
+            }
+            if (queueCapacity < 0) {
+                throw new IllegalArgumentException("Queue capacity cannot be negative");
+            }
+            Objects.requireNonNull(policy, "Policy cannot be null");
+        }
+    }
+
+    private void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(MBEAN_NAME));
+        } catch (JMException | SecurityException e) {
+            LOGGER.warning("Could not register executor metrics MBean: " + e.getMessage());
+        }
     }
 
     public static NexsysExecutor getInstance() {
         return INSTANCE;
     }
 
+    /**
+     * Get the metrics of this executor.
+     */
+    public ExecutorMetrics metrics() {
+        return metrics;
+    }
+
     /**
      * Run a task after specified delay.
      */
     public ScheduledFuture<?> runLater(Runnable task, Duration delay) {
+        return runLater(null, task, delay);
+    }
+
+    /**
+     * Run a named task after specified delay. The name is used to report its metrics.
+     */
+    public ScheduledFuture<?> runLater(String name, Runnable task, Duration delay) {
         if (shuttingDown) {
+            metrics.recordRejected();
             throw new RejectedExecutionException("Executor is shutting down");
         }
-        return scheduler.schedule(() -> virtualExecutor.execute(task),
-                delay.toMillis(), TimeUnit.MILLISECONDS);
+        long intendedStart = System.nanoTime() + Math.max(0, delay.toNanos());
+        return timers.schedule(() -> dispatch(metrics.instrument(name, task, intendedStart)), delay);
     }
 
     /**
      * Run a task at specific instant.
      */
     public ScheduledFuture<?> runAt(Runnable task, Instant when) {
+        return runAt(null, task, when);
+    }
+
+    /**
+     * Run a named task at specific instant. The name is used to report its metrics.
+     */
+    public ScheduledFuture<?> runAt(String name, Runnable task, Instant when) {
         Duration delay = Duration.between(Instant.now(), when);
         if (delay.isNegative()) {
             delay = Duration.ZERO;
         }
-        return runLater(task, delay);
+        return runLater(name, task, delay);
     }
 
     /**
-     * Submit a blocking operation to be executed on virtual thread.
+     * Get the number of delayed tasks that have neither fired nor been cancelled.
+     */
+    public int pendingTimers() {
+        return timers.pendingCount();
+    }
+
+    /**
+     * Execute a task on a virtual thread without tracking its result.
+     */
+    public void execute(Runnable task) {
+        execute(null, task);
+    }
+
+    /**
+     * Execute a named task on a virtual thread without tracking its result.
+     * The name is used to report its metrics.
+     */
+    public void execute(String name, Runnable task) {
+        if (shuttingDown) {
+            metrics.recordRejected();
+            throw new RejectedExecutionException("Executor is shutting down");
+        }
+        dispatch(metrics.instrument(name, task, System.nanoTime()));
+    }
+
+    /**
+     * Submit a blocking operation to be executed on virtual thread in the
+     * {@link Lane#INTERACTIVE} lane. Never blocks the caller: when the lane is saturated, the
+     * returned future fails with a {@link RejectedExecutionException}, unless the lane has
+     * been explicitly configured with {@link BackpressurePolicy#BLOCK}.
      */
     public <T> CompletableFuture<T> submitBlocking(Callable<T> task) {
+        return submitBlocking(Lane.INTERACTIVE, null, task);
+    }
+
+    /**
+     * Submit a named blocking operation to be executed on virtual thread in the
+     * {@link Lane#INTERACTIVE} lane. The name is used to report its metrics. Like
+     * {@link #submitBlocking(Callable)}, this never blocks the caller.
+     */
+    public <T> CompletableFuture<T> submitBlocking(String name, Callable<T> task) {
+        return submitBlocking(Lane.INTERACTIVE, name, task);
+    }
+
+    /**
+     * Submit a blocking operation to be executed on virtual thread in the given lane.
+     */
+    public <T> CompletableFuture<T> submitBlocking(Lane lane, Callable<T> task) {
+        return submitBlocking(lane, null, task);
+    }
+
+    /**
+     * Submit a named blocking operation to be executed on virtual thread in the given lane.
+     * The name is used to report its metrics. Depending on the lane's
+     * {@link BackpressurePolicy}, this blocks while the lane's queue is full, or the returned
+     * future fails with a {@link RejectedExecutionException}. Called from a task running in
+     * the same lane, or from a thread that task started while it is still running, the
+     * operation starts at once on its own virtual thread, bypassing the lane's cap and queue,
+     * so the parent can wait for it without deadlocking a full lane and several such
+     * operations run concurrently.
+     */
+    public <T> CompletableFuture<T> submitBlocking(Lane lane, String name, Callable<T> task) {
+        return submitBlocking(lane, name, task, true);
+    }
+
+    /**
+     * Submit a named blocking operation to a lane, optionally protected from being displaced
+     * under {@link BackpressurePolicy#DROP_OLDEST}. A protected operation waits for queue
+     * space instead, as under {@link BackpressurePolicy#BLOCK}.
+     */
+    <T> CompletableFuture<T> submitBlocking(Lane lane, String name, Callable<T> task, boolean droppable) {
+        Objects.requireNonNull(lane, "Lane cannot be null");
         if (shuttingDown) {
+            metrics.recordRejected();
             return CompletableFuture.failedFuture(
                     new RejectedExecutionException("Executor is shutting down"));
         }
 
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return task.call();
-            } catch (Exception e) {
-                throw new CompletionException(e);
-            }
-        }, virtualExecutor);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Callable<T> instrumented = metrics.instrument(name, task, System.nanoTime());
+        try {
+            lanes[lane.ordinal()].submit(() -> {
+                if (future.isDone()) {
+                    // Cancelled while queued
+                    return;
+                }
+                try {
+                    future.complete(instrumented.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e instanceof CompletionException ? e : new CompletionException(e));
+                }
+            }, !droppable ? null : () -> {
+                metrics.recordRejected();
+                future.completeExceptionally(new RejectedExecutionException("Task dropped from lane " + lane));
+            });
+        } catch (RejectedExecutionException e) {
+            metrics.recordRejected();
+            return CompletableFuture.failedFuture(e);
+        }
+        return future;
+    }
+
+    /**
+     * Change the limits of a lane. A higher concurrency cap starts queued tasks immediately.
+     */
+    public void configureLane(Lane lane, LaneConfig config) {
+        lanes[lane.ordinal()].configure(config);
+    }
+
+    /**
+     * Get the current limits of a lane.
+     */
+    public LaneConfig laneConfig(Lane lane) {
+        return lanes[lane.ordinal()].config();
+    }
+
+    /**
+     * Get the number of tasks running in a lane.
+     */
+    public int runningTasks(Lane lane) {
+        return lanes[lane.ordinal()].running();
+    }
+
+    /**
+     * Get the number of tasks waiting in a lane's queue.
+     */
+    public int queuedTasks(Lane lane) {
+        return lanes[lane.ordinal()].queued();
+    }
+
+    private Map<String, ExecutorMetrics.LaneSnapshot> laneSnapshots() {
+        Map<String, ExecutorMetrics.LaneSnapshot> snapshots = new LinkedHashMap<>();
+        for (Lane lane : Lane.values()) {
+            snapshots.put(lane.name(), lanes[lane.ordinal()].snapshot());
+        }
+        return Collections.unmodifiableMap(snapshots);
+    }
+
+    private void dispatch(Runnable task) {
+        try {
+            virtualExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            metrics.recordRejected();
+            throw e;
+        }
     }
 
     /**
@@ -92,19 +337,13 @@ public final class NexsysExecutor {
         }
 
         shuttingDown = true;
-        scheduler.shutdown();
         virtualExecutor.shutdown();
 
         try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-                if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                    LOGGER.warning("Scheduler did not terminate");
-                }
-            }
+            timers.stop(Duration.ofSeconds(5));
         } catch (InterruptedException e) {
-            scheduler.shutdownNow();
             Thread.currentThread().interrupt();
+            LOGGER.warning("Interrupted while stopping scheduler");
         }
     }
 }
\ No newline at end of file
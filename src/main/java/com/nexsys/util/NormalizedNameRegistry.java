@@ -1,17 +1,85 @@
 // src/main/java/com/nexsys/util/NormalizedNameRegistry.java
 package com.nexsys.util;
 
+import java.lang.reflect.Method;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Abstract base class for registries that normalize names for lookup.
  *
+ * Both indexes, by ID and by normalized name, are held in one immutable snapshot that every
+ * update replaces with a single compare-and-set. Updates therefore never leave the indexes
+ * out of step, a rename drops the old name in the same step, and a batch from
+ * {@link #registerAll} becomes visible all at once. Readers never block.
+ *
+ * Name lookups do not allocate: the index is searched with the hash the normalized name
+ * would have, and its keys are compared with the raw name, normalizing it on the fly.
+ * This applies to ASCII names with the default {@link #normalizeName}; other names, and
+ * registries that override it or declare custom normalization when constructed, look up
+ * the normalized string.
+ *
+ * Registries created with a search index also answer prefix queries for autocomplete and
+ * typo-tolerant queries for voice and intent matching ({@link #findByPrefix},
+ * {@link #findSimilar}). The index is kept up to date on every register and remove.
+ *
  * @param <T> the type of entries in the registry
  */
 public abstract class NormalizedNameRegistry<T> {
-    private final Map<String, T> entries = new ConcurrentHashMap<>();
-    private final Map<String, T> normalizedIndex = new ConcurrentHashMap<>();
+    private static final long NOT_ASCII = -1;
+    private static final PersistentMap.KeyEquivalence NORMALIZED_FORM =
+            (name, key) -> key instanceof String normalized && isNormalizedForm(normalized, (String) name);
+    private static final ClassValue<Boolean> OVERRIDES_NORMALIZE_NAME = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return overridesNormalizeName(type);
+        }
+    };
+
+    private final AtomicReference<State<T>> state = new AtomicReference<>(State.empty());
+    private final boolean defaultNormalization;
+    private final NameSearchIndex<T> searchIndex;
+
+    /**
+     * A match from {@link #findSimilar}.
+     *
+     * @param entry the matching entry
+     * @param distance the edit distance between the normalized query and name
+     * @param <T> the type of entries in the registry
+     */
+    public record NameMatch<T>(T entry, int distance) {}
+
+    /**
+     * Create a registry without a search index.
+     */
+    protected NormalizedNameRegistry() {
+        this(false);
+    }
+
+    /**
+     * Create a registry, optionally maintaining a search index for {@link #findByPrefix}
+     * and {@link #findSimilar}. The index costs memory and slows down updates, so only
+     * enable it for registries that are searched.
+     *
+     * @param searchable whether to maintain a search index
+     */
+    protected NormalizedNameRegistry(boolean searchable) {
+        this(searchable, false);
+    }
+
+    /**
+     * Create a registry, declaring whether names are normalized other than by the default
+     * {@link #normalizeName}. Overriding {@link #normalizeName} is detected without this;
+     * pass true when the normalization changes by any other route, so that lookups always
+     * go through {@link #normalizeName}.
+     *
+     * @param searchable whether to maintain a search index
+     * @param customNormalization whether names are normalized other than by default
+     */
+    protected NormalizedNameRegistry(boolean searchable, boolean customNormalization) {
+        this.searchIndex = searchable ? new NameSearchIndex<>() : null;
+        this.defaultNormalization = !customNormalization && !OVERRIDES_NORMALIZE_NAME.get(getClass());
+    }
 
     /**
      * Normalize a name by converting to lowercase and removing whitespace.
@@ -23,7 +91,125 @@ public abstract class NormalizedNameRegistry<T> {
         if (name == null) {
             return null;
         }
-        return name.toLowerCase(Locale.ROOT).replaceAll("\\s+", "");
+        return normalize(name);
+    }
+
+    /**
+     * Single-pass equivalent of {@code name.toLowerCase(Locale.ROOT).replaceAll("\\s+", "")}.
+     * Returns the name itself if it is already normalized.
+     */
+    static String normalize(String name) {
+        int length = name.length();
+        int first = 0;
+        while (first < length && isNormalizedAscii(name.charAt(first))) {
+            first++;
+        }
+        if (first == length) {
+            return name;
+        }
+
+        String source = name;
+        for (int i = first; i < length; i++) {
+            if (name.charAt(i) >= 0x80) {
+                // Full case mapping is context-sensitive outside ASCII
+                source = name.toLowerCase(Locale.ROOT);
+                length = source.length();
+                break;
+            }
+        }
+
+        char[] normalized = new char[length];
+        name.getChars(0, first, normalized, 0);
+        int count = first;
+        for (int i = first; i < length; i++) {
+            char c = source.charAt(i);
+            if (!isWhitespace(c)) {
+                normalized[count++] = toLowerAscii(c);
+            }
+        }
+        return new String(normalized, 0, count);
+    }
+
+    private static boolean isNormalizedAscii(char c) {
+        return c < 0x80 && !isWhitespace(c) && (c < 'A' || c > 'Z');
+    }
+
+    /** The characters matched by the regex {@code \s}. */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    private static char toLowerAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    /**
+     * Get the hash code of the normalized form of an ASCII name without building it.
+     *
+     * @return the hash code as an unsigned value, or {@code NOT_ASCII} if the name must be
+     *         normalized as a string
+     */
+    static long normalizedHash(String name) {
+        int h = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c >= 0x80) {
+                return NOT_ASCII;
+            }
+            if (!isWhitespace(c)) {
+                h = 31 * h + toLowerAscii(c);
+            }
+        }
+        return h & 0xFFFF_FFFFL;
+    }
+
+    /**
+     * Check whether a string is the normalized form of an ASCII name.
+     */
+    static boolean isNormalizedForm(String normalized, String name) {
+        int j = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!isWhitespace(c)) {
+                if (j == normalized.length() || toLowerAscii(c) != normalized.charAt(j++)) {
+                    return false;
+                }
+            }
+        }
+        return j == normalized.length();
+    }
+
+    private static boolean overridesNormalizeName(Class<?> type) {
+        for (Class<?> c = type; c != NormalizedNameRegistry.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                if (method.getName().equals("normalizeName") && method.getParameterCount() == 1
+                        && method.getParameterTypes()[0] == String.class) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether name lookups compare raw names with the index in place.
+     */
+    boolean looksUpInPlace() {
+        return defaultNormalization;
+    }
+
+    /**
+     * Look up a name in the name index, without normalizing it into a new string when possible.
+     */
+    private T lookup(String name) {
+        PersistentMap<String, T> byName = state.get().byName();
+        if (defaultNormalization) {
+            long hash = normalizedHash(name);
+            if (hash != NOT_ASCII) {
+                return byName.getEquivalent(name, (int) hash, NORMALIZED_FORM);
+            }
+        }
+        return byName.get(normalizeName(name));
     }
 
     /**
@@ -43,30 +229,102 @@ public abstract class NormalizedNameRegistry<T> {
     protected abstract String getId(T entry);
 
     /**
-     * Register a new entry.
+     * Register a new entry. Registering an entry with the ID of an existing one replaces it,
+     * renaming it if the name differs.
      *
      * @param entry the entry to register
      * @throws IllegalArgumentException if an entry with the same name already exists
      */
     public void register(T entry) {
         Objects.requireNonNull(entry, "Entry cannot be null");
+        apply(List.of(stage(entry)), false);
+    }
 
+    /**
+     * Register a batch of entries. Either all of them are registered, in one step that
+     * readers see at once, or none is.
+     *
+     * @param entries the entries to register
+     * @throws IllegalArgumentException if an entry's name is taken by another entry,
+     *         in the registry or in the batch
+     */
+    public void registerAll(Collection<? extends T> entries) {
+        Objects.requireNonNull(entries, "Entries cannot be null");
+        List<Staged<T>> staged = new ArrayList<>(entries.size());
+        for (T entry : entries) {
+            Objects.requireNonNull(entry, "Entry cannot be null");
+            staged.add(stage(entry));
+        }
+        apply(staged, false);
+    }
+
+    /**
+     * Replace the entry with the same ID by one with a new name, in one step.
+     *
+     * @param entry the renamed entry
+     * @return the replaced entry
+     * @throws IllegalArgumentException if no entry has the ID, or the new name is taken
+     */
+    public T rename(T entry) {
+        Objects.requireNonNull(entry, "Entry cannot be null");
+        return apply(List.of(stage(entry)), true).get(0);
+    }
+
+    private Staged<T> stage(T entry) {
         String id = getId(entry);
         String name = getName(entry);
-        String normalizedName = normalizeName(name);
 
         Objects.requireNonNull(id, "Entry ID cannot be null");
         Objects.requireNonNull(name, "Entry name cannot be null");
 
-        T existing = normalizedIndex.get(normalizedName);
-        if (existing != null && !getId(existing).equals(id)) {
-            throw new IllegalArgumentException(
-                    "An entry with name '" + name + "' (normalized: " + normalizedName + ") already exists"
-            );
-        }
+        return new Staged<>(entry, id, name, normalizeName(name));
+    }
+
+    /**
+     * Publish the staged entries in one compare-and-set, retrying on contention.
+     *
+     * @return the entries replaced, by position; null where there was none
+     */
+    private List<T> apply(List<Staged<T>> batch, boolean mustExist) {
+        Set<String> touched = new HashSet<>();
+        List<T> replaced = new ArrayList<>(batch.size());
+        State<T> current;
+        State<T> updated;
+        do {
+            current = state.get();
+            touched.clear();
+            replaced.clear();
+            PersistentMap<String, T> entries = current.entries();
+            PersistentMap<String, T> byName = current.byName();
+            for (Staged<T> staged : batch) {
+                T previous = entries.get(staged.id());
+                if (previous == null && mustExist) {
+                    throw new IllegalArgumentException("No entry with ID '" + staged.id() + "' exists");
+                }
+                T existing = byName.get(staged.normalizedName());
+                if (existing != null && !getId(existing).equals(staged.id())) {
+                    throw new IllegalArgumentException(
+                            "An entry with name '" + staged.name() + "' (normalized: "
+                                    + staged.normalizedName() + ") already exists"
+                    );
+                }
+                if (previous != null) {
+                    String previousName = normalizeName(getName(previous));
+                    if (!previousName.equals(staged.normalizedName())) {
+                        byName = byName.without(previousName);
+                        touched.add(previousName);
+                    }
+                }
+                entries = entries.with(staged.id(), staged.entry());
+                byName = byName.with(staged.normalizedName(), staged.entry());
+                touched.add(staged.normalizedName());
+                replaced.add(previous);
+            }
+            updated = new State<>(entries, byName);
+        } while (!state.compareAndSet(current, updated));
 
-        entries.put(id, entry);
-        normalizedIndex.put(normalizedName, entry);
+        syncSearchIndex(touched);
+        return replaced;
     }
 
     /**
@@ -76,7 +334,7 @@ public abstract class NormalizedNameRegistry<T> {
      * @return the entry, or null if not found
      */
     public T getById(String id) {
-        return entries.get(id);
+        return state.get().entries().get(id);
     }
 
     /**
@@ -86,7 +344,8 @@ public abstract class NormalizedNameRegistry<T> {
      * @return the entry, or null if not found
      */
     public T getByName(String name) {
-        return normalizedIndex.get(normalizeName(name));
+        Objects.requireNonNull(name, "Name cannot be null");
+        return lookup(name);
     }
 
     /**
@@ -96,29 +355,39 @@ public abstract class NormalizedNameRegistry<T> {
      * @return the removed entry, or null if not found
      */
     public T remove(String id) {
-        T entry = entries.remove(id);
-        if (entry != null) {
-            normalizedIndex.remove(normalizeName(getName(entry)));
-        }
+        State<T> current;
+        T entry;
+        String normalizedName;
+        do {
+            current = state.get();
+            entry = current.entries().get(id);
+            if (entry == null) {
+                return null;
+            }
+            normalizedName = normalizeName(getName(entry));
+        } while (!state.compareAndSet(current,
+                new State<>(current.entries().without(id), current.byName().without(normalizedName))));
+
+        syncSearchIndex(Set.of(normalizedName));
         return entry;
     }
 
     /**
      * Get all entries.
      *
-     * @return unmodifiable collection of all entries
+     * @return unmodifiable snapshot of all entries
      */
     public Collection<T> getAll() {
-        return Collections.unmodifiableCollection(entries.values());
+        return Collections.unmodifiableCollection(state.get().entries().values());
     }
 
     /**
      * Get all IDs.
      *
-     * @return unmodifiable set of all IDs
+     * @return unmodifiable snapshot of all IDs
      */
     public Set<String> getAllIds() {
-        return Collections.unmodifiableSet(entries.keySet());
+        return Collections.unmodifiableSet(state.get().entries().keySet());
     }
 
     /**
@@ -128,7 +397,7 @@ public abstract class NormalizedNameRegistry<T> {
      * @return true if exists
      */
     public boolean containsId(String id) {
-        return entries.containsKey(id);
+        return state.get().entries().containsKey(id);
     }
 
     /**
@@ -138,15 +407,21 @@ public abstract class NormalizedNameRegistry<T> {
      * @return true if exists
      */
     public boolean containsName(String name) {
-        return normalizedIndex.containsKey(normalizeName(name));
+        Objects.requireNonNull(name, "Name cannot be null");
+        return lookup(name) != null;
     }
 
     /**
      * Clear all entries.
      */
     public void clear() {
-        entries.clear();
-        normalizedIndex.clear();
+        state.set(State.empty());
+        if (searchIndex != null) {
+            synchronized (searchIndex) {
+                searchIndex.clear();
+                state.get().byName().forEach(searchIndex::add);
+            }
+        }
     }
 
     /**
@@ -155,6 +430,90 @@ public abstract class NormalizedNameRegistry<T> {
      * @return the number of entries
      */
     public int size() {
-        return entries.size();
+        return state.get().entries().size();
+    }
+
+    /**
+     * Bring the search index in line with the latest state for the given names. Updates
+     * publish in one order and may sync in another, so the index is set from the state read
+     * under its lock rather than from the caller's change; the last sync for a name then
+     * always sees its final value.
+     */
+    private void syncSearchIndex(Set<String> normalizedNames) {
+        if (searchIndex == null) {
+            return;
+        }
+        synchronized (searchIndex) {
+            PersistentMap<String, T> byName = state.get().byName();
+            for (String normalizedName : normalizedNames) {
+                T entry = byName.get(normalizedName);
+                if (entry == null) {
+                    searchIndex.remove(normalizedName);
+                } else {
+                    searchIndex.add(normalizedName, entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if this registry maintains a search index.
+     *
+     * @return true if {@link #findByPrefix} and {@link #findSimilar} are supported
+     */
+    public boolean isSearchable() {
+        return searchIndex != null;
     }
+
+    /**
+     * Find entries whose normalized name starts with the normalized prefix, in name order.
+     *
+     * @param prefix the prefix
+     * @param limit the maximum number of entries to return
+     * @return the matching entries
+     * @throws IllegalStateException if the registry has no search index
+     */
+    public List<T> findByPrefix(String prefix, int limit) {
+        Objects.requireNonNull(prefix, "Prefix cannot be null");
+        return requireSearchIndex(limit).findByPrefix(normalizeName(prefix), limit);
+    }
+
+    /**
+     * Find entries whose normalized name is within {@code maxDistance} insertions, deletions
+     * or substitutions of the normalized query. Matches are ranked by distance, then by name.
+     *
+     * @param name the query
+     * @param maxDistance the maximum edit distance
+     * @param limit the maximum number of matches to return
+     * @return the matches, closest first
+     * @throws IllegalStateException if the registry has no search index
+     */
+    public List<NameMatch<T>> findSimilar(String name, int maxDistance, int limit) {
+        Objects.requireNonNull(name, "Name cannot be null");
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("Max distance cannot be negative");
+        }
+        return requireSearchIndex(limit).findSimilar(normalizeName(name), maxDistance, limit);
+    }
+
+    private NameSearchIndex<T> requireSearchIndex(int limit) {
+        if (searchIndex == null) {
+            throw new IllegalStateException("Search index is not enabled for this registry");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return searchIndex;
+    }
+
+    /**
+     * Immutable snapshot of both indexes.
+     */
+    private record State<T>(PersistentMap<String, T> entries, PersistentMap<String, T> byName) {
+        static <T> State<T> empty() {
+            return new State<>(PersistentMap.empty(), PersistentMap.empty());
+        }
+    }
+
+    private record Staged<T>(T entry, String id, String name, String normalizedName) {}
 }
\ No newline at end of file
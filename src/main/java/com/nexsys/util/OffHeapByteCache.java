@@ -0,0 +1,316 @@
+// src/main/java/com/nexsys/util/OffHeapByteCache.java
+package com.nexsys.util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * A byte cache bounded by total payload size, stored outside the Java heap.
+ *
+ * Large payloads such as camera snapshots or HTTP bodies are kept in direct {@link ByteBuffer}
+ * slabs, so they add nothing to GC work. The slabs form a circular log: every write is
+ * appended at the tail, and when the log is full the oldest entries are evicted, which gives
+ * the same FIFO behaviour as {@link LimitedSizeMap}. Replacing a value appends it again, so
+ * the entry becomes the newest. Space of removed entries is reclaimed when the log wraps
+ * around to it. Every entry takes at least one byte of the log, so empty payloads are
+ * evicted like any other and cannot pile up. Slabs are allocated the first time the log
+ * reaches them.
+ *
+ * {@link #read} gives zero-copy access to a payload while holding a read lock; {@link #get}
+ * returns a copy. The cache is thread-safe.
+ *
+ * @param <K> the key type
+ */
+public final class OffHeapByteCache<K> {
+    /** Default slab size; also the largest payload a cache can hold. */
+    public static final int DEFAULT_SLAB_BYTES = 64 * 1024 * 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final long capacityBytes;
+    private final int slabBytes;
+    private final ByteBuffer[] slabs;
+    private final Map<K, Slot<K>> index = new HashMap<>();
+    private final ArrayDeque<Slot<K>> log = new ArrayDeque<>();
+
+    // Guarded by the write lock
+    private long tail = 0;
+    private long usedBytes = 0;
+    private long evictionCount = 0;
+
+    /**
+     * Create a cache holding up to {@code capacityBytes} of payload, with the default slab size.
+     *
+     * @param capacityBytes the maximum total payload size
+     */
+    public OffHeapByteCache(long capacityBytes) {
+        this(capacityBytes, (int) Math.min(capacityBytes, DEFAULT_SLAB_BYTES));
+    }
+
+    /**
+     * Create a cache holding up to {@code capacityBytes} of payload in slabs of
+     * {@code slabBytes}. A single payload cannot be larger than a slab.
+     *
+     * @param capacityBytes the maximum total payload size
+     * @param slabBytes the size of each off-heap slab
+     * @throws IllegalArgumentException if a size is less than 1 or the slab is larger than the capacity
+     */
+    public OffHeapByteCache(long capacityBytes, int slabBytes) {
+        if (capacityBytes < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1 byte");
+        }
+        if (slabBytes < 1 || slabBytes > capacityBytes) {
+            throw new IllegalArgumentException("Slab size must be between 1 and the capacity");
+        }
+        long slabCount = (capacityBytes + slabBytes - 1) / slabBytes;
+        if (slabCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many slabs, use a larger slab size");
+        }
+        this.capacityBytes = capacityBytes;
+        this.slabBytes = slabBytes;
+        this.slabs = new ByteBuffer[(int) slabCount];
+    }
+
+    /**
+     * Store a copy of the payload, evicting the oldest entries if needed.
+     *
+     * @param key the key
+     * @param value the payload
+     * @throws IllegalArgumentException if the payload is larger than a slab
+     */
+    public void put(K key, byte[] value) {
+        Objects.requireNonNull(value, "Value cannot be null");
+        put(key, ByteBuffer.wrap(value));
+    }
+
+    /**
+     * Store a copy of the remaining bytes of the buffer, evicting the oldest entries if
+     * needed. The buffer's position is not changed.
+     *
+     * @param key the key
+     * @param value the payload
+     * @throws IllegalArgumentException if the payload is larger than a slab
+     */
+    public void put(K key, ByteBuffer value) {
+        Objects.requireNonNull(key, "Key cannot be null");
+        Objects.requireNonNull(value, "Value cannot be null");
+        int length = value.remaining();
+        if (length > slabBytes) {
+            throw new IllegalArgumentException(
+                    "Value of " + length + " bytes exceeds the slab size of " + slabBytes + " bytes");
+        }
+
+        lock.writeLock().lock();
+        try {
+            Slot<K> previous = index.remove(key);
+            if (previous != null) {
+                release(previous);
+            }
+            long address = allocate(Math.max(length, 1));
+            slice(address, length).put(value.duplicate());
+            Slot<K> slot = new Slot<>(key, address, length);
+            index.put(key, slot);
+            log.addLast(slot);
+            usedBytes += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get a copy of the payload.
+     *
+     * @param key the key
+     * @return the payload, or null if absent
+     */
+    public byte[] get(K key) {
+        return read(key, buffer -> {
+            byte[] copy = new byte[buffer.remaining()];
+            buffer.get(copy);
+            return copy;
+        });
+    }
+
+    /**
+     * Read the payload in place. The reader gets a read-only view of the off-heap bytes,
+     * valid only for the duration of the call; it must not keep the buffer. Writers wait
+     * while a reader runs, so keep readers short.
+     *
+     * @param key the key
+     * @param reader receives the payload view
+     * @param <R> the result type
+     * @return the reader's result, or null if the key is absent
+     */
+    public <R> R read(K key, Function<? super ByteBuffer, ? extends R> reader) {
+        Objects.requireNonNull(reader, "Reader cannot be null");
+        lock.readLock().lock();
+        try {
+            Slot<K> slot = index.get(key);
+            if (slot == null) {
+                return null;
+            }
+            return reader.apply(slice(slot.address, slot.length).asReadOnlyBuffer());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean containsKey(K key) {
+        lock.readLock().lock();
+        try {
+            return index.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an entry. Its space is reused when the log wraps around to it.
+     *
+     * @param key the key
+     * @return true if the entry was present
+     */
+    public boolean remove(K key) {
+        lock.writeLock().lock();
+        try {
+            Slot<K> slot = index.remove(key);
+            if (slot == null) {
+                return false;
+            }
+            release(slot);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove all entries. The slabs are kept for reuse.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            log.clear();
+            tail = 0;
+            usedBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the total size of the cached payloads.
+     */
+    public long usedBytes() {
+        lock.readLock().lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the maximum total payload size.
+     */
+    public long capacityBytes() {
+        return capacityBytes;
+    }
+
+    /**
+     * Get the number of entries evicted to make room for new ones.
+     */
+    public long evictionCount() {
+        lock.readLock().lock();
+        try {
+            return evictionCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reserve {@code length} bytes at the tail of the log, evicting the entries in the way.
+     * A payload never spans two slabs: if it does not fit in the rest of the current slab,
+     * the rest is skipped.
+     */
+    private long allocate(int length) {
+        while (true) {
+            long slabEnd = Math.min((tail / slabBytes + 1) * slabBytes, capacityBytes);
+            if (tail + length <= slabEnd) {
+                break;
+            }
+            evict(tail, slabEnd);
+            tail = slabEnd == capacityBytes ? 0 : slabEnd;
+        }
+        evict(tail, tail + length);
+        long address = tail;
+        tail += length;
+        if (tail == capacityBytes) {
+            tail = 0;
+        }
+        return address;
+    }
+
+    /**
+     * Evict the oldest entries while they start inside [from, to). The log is ordered by
+     * address starting at the tail, so only its head can be in the way.
+     */
+    private void evict(long from, long to) {
+        Slot<K> oldest;
+        while ((oldest = log.peekFirst()) != null && oldest.address >= from && oldest.address < to) {
+            log.removeFirst();
+            if (oldest.live) {
+                index.remove(oldest.key);
+                oldest.live = false;
+                usedBytes -= oldest.length;
+                evictionCount++;
+            }
+        }
+    }
+
+    private void release(Slot<K> slot) {
+        slot.live = false;
+        usedBytes -= slot.length;
+    }
+
+    private ByteBuffer slice(long address, int length) {
+        int slabIndex = (int) (address / slabBytes);
+        ByteBuffer slab = slabs[slabIndex];
+        if (slab == null) {
+            int size = (int) Math.min(slabBytes, capacityBytes - (long) slabIndex * slabBytes);
+            slab = ByteBuffer.allocateDirect(size);
+            slabs[slabIndex] = slab;
+        }
+        return slab.slice((int) (address - (long) slabIndex * slabBytes), length);
+    }
+
+    private static final class Slot<K> {
+        final K key;
+        final long address;
+        final int length;
+
+        // Guarded by the write lock
+        boolean live = true;
+
+        Slot(K key, long address, int length) {
+            this.key = key;
+            this.address = address;
+            this.length = length;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,741 @@
+// src/main/java/com/nexsys/util/PersistentMap.java
+package com.nexsys.util;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable map with cheap updates, for snapshots that change a little at a time.
+ *
+ * The map is a compressed hash-array mapped prefix tree (CHAMP). {@link #with} and
+ * {@link #without} return a new map in O(log32 n) that shares every untouched node with
+ * the original, so keeping many versions of a large map costs little more than one copy.
+ * The tree has a single canonical shape for a given content, which makes {@link #equals}
+ * between versions stop at shared nodes, and lets {@link #diff} skip unchanged subtrees.
+ *
+ * Null keys and values are supported. The {@link Map} mutators throw
+ * {@link UnsupportedOperationException}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int HASH_BITS = 32;
+    private static final Object NOT_FOUND = new Object();
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(BitmapNode.EMPTY, 0);
+    private static final KeyEquivalence EQUALS = Objects::equals;
+
+    private final Node root;
+    private final int size;
+    private int hashCode;
+    private Set<Map.Entry<K, V>> entrySet;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Get the empty map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Create a persistent map with the entries of a map. A persistent map is returned as is.
+     *
+     * @param map the map to copy
+     * @return the persistent map
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        if (map instanceof PersistentMap<?, ?> persistent) {
+            return (PersistentMap<K, V>) persistent;
+        }
+        return PersistentMap.<K, V>empty().withAll(map);
+    }
+
+    /**
+     * Get a map with the key mapped to the value. Returns this map if it already holds
+     * an equal value for the key.
+     */
+    public PersistentMap<K, V> with(K key, V value) {
+        Change change = new Change();
+        Node newRoot = root.update(key, value, hash(key), 0, change);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentMap<>(newRoot, change.found ? size : size + 1);
+    }
+
+    /**
+     * Get a map with all entries of this map and the given one, the given one winning
+     * on equal keys.
+     */
+    public PersistentMap<K, V> withAll(Map<? extends K, ? extends V> entries) {
+        Node newRoot = root;
+        int newSize = size;
+        for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+            Change change = new Change();
+            newRoot = newRoot.update(entry.getKey(), entry.getValue(), hash(entry.getKey()), 0, change);
+            if (change.modified && !change.found) {
+                newSize++;
+            }
+        }
+        return newRoot == root ? this : new PersistentMap<>(newRoot, newSize);
+    }
+
+    /**
+     * Get a map without the key. Returns this map if the key is absent.
+     */
+    public PersistentMap<K, V> without(Object key) {
+        Change change = new Change();
+        Node newRoot = root.remove(key, hash(key), 0, change);
+        if (newRoot == root) {
+            return this;
+        }
+        return size == 1 ? empty() : new PersistentMap<>(newRoot, size - 1);
+    }
+
+    /**
+     * Compare this map with a later version of it. Subtrees shared by both versions are
+     * skipped, so comparing two versions a few updates apart costs O(log n) per update.
+     *
+     * @param newer the later version
+     * @return the entries added, removed and changed going from this map to {@code newer}
+     */
+    public Diff<K, V> diff(PersistentMap<K, V> newer) {
+        Objects.requireNonNull(newer, "Map cannot be null");
+        DiffCollector<K, V> collector = new DiffCollector<>();
+        diffNodes(root, newer.root, collector);
+        return collector.toDiff();
+    }
+
+    /**
+     * A value that was replaced.
+     */
+    public record ValueChange<V>(V oldValue, V newValue) {}
+
+    /**
+     * The difference between two versions of a map.
+     *
+     * @param added entries only in the newer version
+     * @param removed entries only in the older version
+     * @param changed keys in both versions whose values differ
+     */
+    public record Diff<K, V>(Map<K, V> added, Map<K, V> removed, Map<K, ValueChange<V>> changed) {
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+        }
+    }
+
+    /**
+     * Decides whether a lookup token stands for a stored key, for {@link #getEquivalent}.
+     */
+    @FunctionalInterface
+    interface KeyEquivalence {
+        boolean matches(Object token, Object storedKey);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Object value = root.find(key, hash(key), EQUALS, 0);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        Object value = root.find(key, hash(key), EQUALS, 0);
+        return value == NOT_FOUND ? defaultValue : (V) value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return root.find(key, hash(key), EQUALS, 0) != NOT_FOUND;
+    }
+
+    /**
+     * Get the value of the key a token stands for, without building that key, e.g. a raw
+     * name for its normalized form. {@code keyHash} must be the {@code hashCode} of that key,
+     * and {@code equivalence} must match the token against exactly the keys equal to it.
+     *
+     * @param token the lookup token, passed to the equivalence as is
+     * @param keyHash the hash code of the key the token stands for
+     * @param equivalence matches the token against stored keys with that hash code
+     * @return the value, or null if there is no such key
+     */
+    @SuppressWarnings("unchecked")
+    V getEquivalent(Object token, int keyHash, KeyEquivalence equivalence) {
+        Object value = root.find(token, spread(keyHash), equivalence, 0);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action, "Action cannot be null");
+        root.forEach((BiConsumer<Object, Object>) action);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> entries = entrySet;
+        if (entries == null) {
+            entries = new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new EntryIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+            entrySet = entries;
+        }
+        return entries;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o instanceof PersistentMap<?, ?> other) {
+            return size == other.size && nodeEquals(root, other.root);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hashCode;
+        if (h == 0 && size > 0) {
+            h = super.hashCode();
+            hashCode = h;
+        }
+        return h;
+    }
+
+    private static int hash(Object key) {
+        return spread(key == null ? 0 : key.hashCode());
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static int mask(int hash, int shift) {
+        return (hash >>> shift) & MASK;
+    }
+
+    private static int bitpos(int hash, int shift) {
+        return 1 << mask(hash, shift);
+    }
+
+    /**
+     * Outcome of an update or removal, filled in by the nodes.
+     */
+    private static final class Change {
+        boolean modified;
+        boolean found;
+    }
+
+    private abstract static class Node {
+        abstract Object find(Object key, int hash, KeyEquivalence equivalence, int shift);
+
+        abstract Node update(Object key, Object value, int hash, int shift, Change change);
+
+        abstract Node remove(Object key, int hash, int shift, Change change);
+
+        abstract int payloadArity();
+
+        abstract Object keyAt(int index);
+
+        abstract Object valueAt(int index);
+
+        abstract int nodeArity();
+
+        abstract Node nodeAt(int index);
+
+        final void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < payloadArity(); i++) {
+                action.accept(keyAt(i), valueAt(i));
+            }
+            for (int i = 0; i < nodeArity(); i++) {
+                nodeAt(i).forEach(action);
+            }
+        }
+    }
+
+    /**
+     * Inner node holding inline entries and sub-nodes, each indexed by a bitmap of the
+     * 5-bit hash slice at its depth. Entries come first in the content array as key/value
+     * pairs; sub-nodes are stored from the end.
+     */
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, 0, new Object[0]);
+
+        final int dataMap;
+        final int nodeMap;
+        final Object[] content;
+
+        BitmapNode(int dataMap, int nodeMap, Object[] content) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        int dataIndex(int bit) {
+            return Integer.bitCount(dataMap & (bit - 1));
+        }
+
+        int nodeIndex(int bit) {
+            return Integer.bitCount(nodeMap & (bit - 1));
+        }
+
+        Node subNode(int bit) {
+            return (Node) content[content.length - 1 - nodeIndex(bit)];
+        }
+
+        @Override
+        Object find(Object key, int hash, KeyEquivalence equivalence, int shift) {
+            int bit = bitpos(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int index = 2 * dataIndex(bit);
+                return equivalence.matches(key, content[index]) ? content[index + 1] : NOT_FOUND;
+            }
+            if ((nodeMap & bit) != 0) {
+                return subNode(bit).find(key, hash, equivalence, shift + BITS);
+            }
+            return NOT_FOUND;
+        }
+
+        @Override
+        Node update(Object key, Object value, int hash, int shift, Change change) {
+            int bit = bitpos(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int index = 2 * dataIndex(bit);
+                Object existingKey = content[index];
+                if (Objects.equals(existingKey, key)) {
+                    change.found = true;
+                    if (Objects.equals(content[index + 1], value)) {
+                        return this;
+                    }
+                    change.modified = true;
+                    Object[] copy = content.clone();
+                    copy[index + 1] = value;
+                    return new BitmapNode(dataMap, nodeMap, copy);
+                }
+                change.modified = true;
+                Node merged = merge(existingKey, content[index + 1], hash(existingKey),
+                        key, value, hash, shift + BITS);
+                return migrateToNode(bit, merged);
+            }
+            if ((nodeMap & bit) != 0) {
+                Node sub = subNode(bit);
+                Node newSub = sub.update(key, value, hash, shift + BITS, change);
+                return newSub == sub ? this : replaceNode(bit, newSub);
+            }
+            change.modified = true;
+            return insertValue(bit, key, value);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift, Change change) {
+            int bit = bitpos(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int index = 2 * dataIndex(bit);
+                if (!Objects.equals(content[index], key)) {
+                    return this;
+                }
+                change.modified = true;
+                change.found = true;
+                if (shift > 0 && payloadArity() == 2 && nodeArity() == 0) {
+                    // Left with one entry: the parent inlines it, or it becomes the root
+                    int remaining = index == 0 ? 2 : 0;
+                    Object remainingKey = content[remaining];
+                    return new BitmapNode(bitpos(hash(remainingKey), 0), 0,
+                            new Object[]{remainingKey, content[remaining + 1]});
+                }
+                return removeValue(bit, index);
+            }
+            if ((nodeMap & bit) != 0) {
+                Node sub = subNode(bit);
+                Node newSub = sub.remove(key, hash, shift + BITS, change);
+                if (newSub == sub) {
+                    return this;
+                }
+                if (newSub.payloadArity() == 1 && newSub.nodeArity() == 0) {
+                    if (payloadArity() == 0 && nodeArity() == 1) {
+                        return newSub;
+                    }
+                    return migrateToInline(bit, newSub);
+                }
+                return replaceNode(bit, newSub);
+            }
+            return this;
+        }
+
+        @Override
+        int payloadArity() {
+            return Integer.bitCount(dataMap);
+        }
+
+        @Override
+        Object keyAt(int index) {
+            return content[2 * index];
+        }
+
+        @Override
+        Object valueAt(int index) {
+            return content[2 * index + 1];
+        }
+
+        @Override
+        int nodeArity() {
+            return Integer.bitCount(nodeMap);
+        }
+
+        @Override
+        Node nodeAt(int index) {
+            return (Node) content[content.length - 1 - index];
+        }
+
+        private Node insertValue(int bit, Object key, Object value) {
+            int index = 2 * dataIndex(bit);
+            Object[] copy = new Object[content.length + 2];
+            System.arraycopy(content, 0, copy, 0, index);
+            copy[index] = key;
+            copy[index + 1] = value;
+            System.arraycopy(content, index, copy, index + 2, content.length - index);
+            return new BitmapNode(dataMap | bit, nodeMap, copy);
+        }
+
+        private Node removeValue(int bit, int index) {
+            Object[] copy = new Object[content.length - 2];
+            System.arraycopy(content, 0, copy, 0, index);
+            System.arraycopy(content, index + 2, copy, index, content.length - index - 2);
+            return new BitmapNode(dataMap ^ bit, nodeMap, copy);
+        }
+
+        private Node replaceNode(int bit, Node node) {
+            Object[] copy = content.clone();
+            copy[content.length - 1 - nodeIndex(bit)] = node;
+            return new BitmapNode(dataMap, nodeMap, copy);
+        }
+
+        private Node migrateToNode(int bit, Node node) {
+            int oldIndex = 2 * dataIndex(bit);
+            int newIndex = content.length - 2 - nodeIndex(bit);
+            Object[] copy = new Object[content.length - 1];
+            System.arraycopy(content, 0, copy, 0, oldIndex);
+            System.arraycopy(content, oldIndex + 2, copy, oldIndex, newIndex - oldIndex);
+            copy[newIndex] = node;
+            System.arraycopy(content, newIndex + 2, copy, newIndex + 1, content.length - newIndex - 2);
+            return new BitmapNode(dataMap ^ bit, nodeMap | bit, copy);
+        }
+
+        private Node migrateToInline(int bit, Node node) {
+            int oldIndex = content.length - 1 - nodeIndex(bit);
+            int newIndex = 2 * dataIndex(bit);
+            Object[] copy = new Object[content.length + 1];
+            System.arraycopy(content, 0, copy, 0, newIndex);
+            copy[newIndex] = node.keyAt(0);
+            copy[newIndex + 1] = node.valueAt(0);
+            System.arraycopy(content, newIndex, copy, newIndex + 2, oldIndex - newIndex);
+            System.arraycopy(content, oldIndex + 1, copy, oldIndex + 2, content.length - oldIndex - 1);
+            return new BitmapNode(dataMap | bit, nodeMap ^ bit, copy);
+        }
+    }
+
+    /**
+     * Leaf for keys whose hashes are fully equal.
+     */
+    private static final class CollisionNode extends Node {
+        final int hash;
+        final Object[] keys;
+        final Object[] values;
+
+        CollisionNode(int hash, Object[] keys, Object[] values) {
+            this.hash = hash;
+            this.keys = keys;
+            this.values = values;
+        }
+
+        int indexOf(Object key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (Objects.equals(key, keys[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(Object key, int hash, KeyEquivalence equivalence, int shift) {
+            for (int i = 0; i < keys.length; i++) {
+                if (equivalence.matches(key, keys[i])) {
+                    return values[i];
+                }
+            }
+            return NOT_FOUND;
+        }
+
+        @Override
+        Node update(Object key, Object value, int hash, int shift, Change change) {
+            int index = indexOf(key);
+            if (index >= 0) {
+                change.found = true;
+                if (Objects.equals(values[index], value)) {
+                    return this;
+                }
+                change.modified = true;
+                Object[] newValues = values.clone();
+                newValues[index] = value;
+                return new CollisionNode(this.hash, keys, newValues);
+            }
+            change.modified = true;
+            Object[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+            Object[] newValues = Arrays.copyOf(values, values.length + 1);
+            newKeys[keys.length] = key;
+            newValues[values.length] = value;
+            return new CollisionNode(this.hash, newKeys, newValues);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift, Change change) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return this;
+            }
+            change.modified = true;
+            change.found = true;
+            if (keys.length == 2) {
+                int remaining = 1 - index;
+                return new BitmapNode(bitpos(this.hash, 0), 0, new Object[]{keys[remaining], values[remaining]});
+            }
+            Object[] newKeys = new Object[keys.length - 1];
+            Object[] newValues = new Object[values.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(values, 0, newValues, 0, index);
+            System.arraycopy(values, index + 1, newValues, index, values.length - index - 1);
+            return new CollisionNode(this.hash, newKeys, newValues);
+        }
+
+        @Override
+        int payloadArity() {
+            return keys.length;
+        }
+
+        @Override
+        Object keyAt(int index) {
+            return keys[index];
+        }
+
+        @Override
+        Object valueAt(int index) {
+            return values[index];
+        }
+
+        @Override
+        int nodeArity() {
+            return 0;
+        }
+
+        @Override
+        Node nodeAt(int index) {
+            throw new IndexOutOfBoundsException(index);
+        }
+    }
+
+    private static Node merge(Object key0, Object value0, int hash0,
+                              Object key1, Object value1, int hash1, int shift) {
+        if (shift >= HASH_BITS) {
+            return new CollisionNode(hash0, new Object[]{key0, key1}, new Object[]{value0, value1});
+        }
+        int mask0 = mask(hash0, shift);
+        int mask1 = mask(hash1, shift);
+        if (mask0 != mask1) {
+            Object[] content = mask0 < mask1
+                    ? new Object[]{key0, value0, key1, value1}
+                    : new Object[]{key1, value1, key0, value0};
+            return new BitmapNode((1 << mask0) | (1 << mask1), 0, content);
+        }
+        Node sub = merge(key0, value0, hash0, key1, value1, hash1, shift + BITS);
+        return new BitmapNode(0, 1 << mask0, new Object[]{sub});
+    }
+
+    private static boolean nodeEquals(Node a, Node b) {
+        if (a == b) {
+            return true;
+        }
+        if (a instanceof BitmapNode x && b instanceof BitmapNode y) {
+            if (x.dataMap != y.dataMap || x.nodeMap != y.nodeMap) {
+                return false;
+            }
+            for (int i = 0; i < x.payloadArity(); i++) {
+                if (!Objects.equals(x.keyAt(i), y.keyAt(i)) || !Objects.equals(x.valueAt(i), y.valueAt(i))) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < x.nodeArity(); i++) {
+                if (!nodeEquals(x.nodeAt(i), y.nodeAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (a instanceof CollisionNode x && b instanceof CollisionNode y) {
+            if (x.keys.length != y.keys.length) {
+                return false;
+            }
+            for (int i = 0; i < x.keys.length; i++) {
+                int index = y.indexOf(x.keys[i]);
+                if (index < 0 || !Objects.equals(x.values[i], y.values[index])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static <K, V> void diffNodes(Node older, Node newer, DiffCollector<K, V> collector) {
+        if (older == newer) {
+            return;
+        }
+        if (!(older instanceof BitmapNode a) || !(newer instanceof BitmapNode b)) {
+            collector.diffEntries(entries(older), entries(newer));
+            return;
+        }
+
+        int bits = a.dataMap | a.nodeMap | b.dataMap | b.nodeMap;
+        while (bits != 0) {
+            int bit = Integer.lowestOneBit(bits);
+            bits ^= bit;
+            if ((a.nodeMap & bit) != 0 && (b.nodeMap & bit) != 0) {
+                diffNodes(a.subNode(bit), b.subNode(bit), collector);
+            } else if ((a.dataMap & bit) != 0 && (b.dataMap & bit) != 0) {
+                int i = 2 * a.dataIndex(bit);
+                int j = 2 * b.dataIndex(bit);
+                collector.diffEntries(
+                        Collections.singletonMap(a.content[i], a.content[i + 1]),
+                        Collections.singletonMap(b.content[j], b.content[j + 1]));
+            } else {
+                collector.diffEntries(slotEntries(a, bit), slotEntries(b, bit));
+            }
+        }
+    }
+
+    private static Map<Object, Object> slotEntries(BitmapNode node, int bit) {
+        if ((node.dataMap & bit) != 0) {
+            int index = 2 * node.dataIndex(bit);
+            return Collections.singletonMap(node.content[index], node.content[index + 1]);
+        }
+        if ((node.nodeMap & bit) != 0) {
+            return entries(node.subNode(bit));
+        }
+        return Collections.emptyMap();
+    }
+
+    private static Map<Object, Object> entries(Node node) {
+        Map<Object, Object> entries = new HashMap<>();
+        node.forEach(entries::put);
+        return entries;
+    }
+
+    private static final class DiffCollector<K, V> {
+        private final Map<K, V> added = new LinkedHashMap<>();
+        private final Map<K, V> removed = new LinkedHashMap<>();
+        private final Map<K, ValueChange<V>> changed = new LinkedHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        void diffEntries(Map<Object, Object> older, Map<Object, Object> newer) {
+            older.forEach((key, value) -> {
+                if (!newer.containsKey(key)) {
+                    removed.put((K) key, (V) value);
+                } else {
+                    Object newValue = newer.get(key);
+                    if (!Objects.equals(value, newValue)) {
+                        changed.put((K) key, new ValueChange<>((V) value, (V) newValue));
+                    }
+                }
+            });
+            newer.forEach((key, value) -> {
+                if (!older.containsKey(key)) {
+                    added.put((K) key, (V) value);
+                }
+            });
+        }
+
+        Diff<K, V> toDiff() {
+            return new Diff<>(Collections.unmodifiableMap(added), Collections.unmodifiableMap(removed),
+                    Collections.unmodifiableMap(changed));
+        }
+    }
+
+    /**
+     * Depth-first iterator: the inline entries of a node, then its sub-nodes.
+     */
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final ArrayDeque<Node> pending = new ArrayDeque<>();
+        private Node current;
+        private int index;
+
+        EntryIterator(Node root) {
+            current = root;
+            pushChildren(root);
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<K, V> entry = new AbstractMap.SimpleImmutableEntry<>(
+                    (K) current.keyAt(index), (V) current.valueAt(index));
+            index++;
+            advance();
+            return entry;
+        }
+
+        private void advance() {
+            while (index >= current.payloadArity()) {
+                if (pending.isEmpty()) {
+                    current = null;
+                    return;
+                }
+                current = pending.pop();
+                index = 0;
+                pushChildren(current);
+            }
+        }
+
+        private void pushChildren(Node node) {
+            for (int i = node.nodeArity() - 1; i >= 0; i--) {
+                pending.push(node.nodeAt(i));
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -27,7 +27,8 @@ public final class ReadOnlyMap {
     }
 
     /**
-     * Create a read-only copy of a map.
+     * Create a read-only copy of a map. A {@link PersistentMap} is already immutable and
+     * is returned without copying.
      *
      * @param map the map to copy
      * @param <K> the key type
@@ -38,6 +39,28 @@ public final class ReadOnlyMap {
         if (map == null || map.isEmpty()) {
             return Collections.emptyMap();
         }
+        if (map instanceof PersistentMap<K, V> persistent) {
+            return persistent;
+        }
         return Collections.unmodifiableMap(new HashMap<>(map));
     }
+
+    /**
+     * Create an immutable snapshot of a map that can be updated cheaply. Keep the returned
+     * map as the source of truth and derive the next snapshot with
+     * {@link PersistentMap#with} or {@link PersistentMap#without}: each update then costs
+     * O(log n) instead of the O(n) of {@link #copyOf}, and versions can be compared with
+     * {@link PersistentMap#diff}.
+     *
+     * @param map the map to snapshot
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return the snapshot
+     */
+    public static <K, V> PersistentMap<K, V> snapshot(Map<K, V> map) {
+        if (map == null) {
+            return PersistentMap.empty();
+        }
+        return PersistentMap.copyOf(map);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,607 @@
+// src/main/java/com/nexsys/util/SegmentedLinkedMap.java
+package com.nexsys.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * FIFO and LRU store behind {@link BoundedConcurrentMap}.
+ *
+ * Keys are hashed into independently locked segments, each a {@link LinkedHashMap} in
+ * insertion (FIFO) or access (LRU) order, so threads only contend when they touch the same
+ * segment. FIFO reads take the shared read lock; LRU reads reorder the segment and take its
+ * write lock. Expired entries are dropped when they are read and from the head of a segment
+ * on every write.
+ *
+ * The size or weight limit applies to the whole map. Every node carries a {@code nanoTime}
+ * stamp of its insertion (FIFO) or last access (LRU), and each segment publishes its head.
+ * A write that takes the total over the maximum evicts, after releasing its own segment,
+ * the head with the oldest stamp across all segments until the map fits again, so eviction
+ * follows the map-wide order up to concurrent writes. An entry heavier than the maximum is
+ * not stored at all.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class SegmentedLinkedMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+    private static final int MAX_SEGMENTS = 64;
+
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+    private final long maximum;
+    private final AtomicLong weight = new AtomicLong();
+    private final boolean accessOrder;
+    private final ToIntBiFunction<? super K, ? super V> weigher;
+    private final long expireAfterWriteNanos;
+    private final long expireAfterAccessNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private Set<Map.Entry<K, V>> entrySet;
+
+    /**
+     * @param maximum the maximum size, or the maximum total weight if a weigher is given
+     * @param accessOrder true for LRU, false for FIFO
+     * @param weigher the entry weigher, or null to count entries
+     * @param expireAfterWriteNanos lifetime after the last write, or 0 for none
+     * @param expireAfterAccessNanos lifetime after the last read or write, or 0 for none
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    SegmentedLinkedMap(long maximum, boolean accessOrder, ToIntBiFunction<? super K, ? super V> weigher,
+                       long expireAfterWriteNanos, long expireAfterAccessNanos) {
+        this.maximum = maximum;
+        this.accessOrder = accessOrder;
+        this.weigher = weigher;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.expireAfterAccessNanos = expireAfterAccessNanos;
+
+        long bySize = Math.max(1, maximum / MIN_SEGMENT_CAPACITY);
+        int count = (int) Math.min(Math.min(bySize, MAX_SEGMENTS), 4L * Runtime.getRuntime().availableProcessors());
+        count = Integer.highestOneBit(Math.max(1, count));
+        this.segments = new Segment[count];
+        this.segmentMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(accessOrder);
+        }
+    }
+
+    BoundedConcurrentMap.Stats stats() {
+        return new BoundedConcurrentMap.Stats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    /**
+     * Drop all expired entries.
+     */
+    void cleanUp() {
+        if (!expires()) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (Segment<K, V> segment : segments) {
+            segment.lock.writeLock().lock();
+            try {
+                Iterator<Node<V>> nodes = segment.map.values().iterator();
+                while (nodes.hasNext()) {
+                    Node<V> node = nodes.next();
+                    if (isExpired(node, now)) {
+                        nodes.remove();
+                        segment.weight -= node.weight;
+                        weight.addAndGet(-node.weight);
+                        evictions.increment();
+                    }
+                }
+            } finally {
+                unlockWrite(segment);
+            }
+        }
+    }
+
+    @Override
+    public V get(Object key) {
+        return lookup(key, true);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return lookup(key, false) != null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return write(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return write(key, value, true);
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction, "Mapping function cannot be null");
+        V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        Segment<K, V> segment = segmentFor(key);
+        V value;
+        segment.lock.writeLock().lock();
+        try {
+            long now = now();
+            Node<V> node = liveNode(segment, key, now);
+            if (node != null) {
+                touch(segment, key, node, now);
+                return node.value;
+            }
+            value = mappingFunction.apply(key);
+            if (value != null) {
+                insert(segment, key, value, now);
+            }
+        } finally {
+            unlockWrite(segment);
+        }
+        evictToMaximum();
+        return value;
+    }
+
+    @Override
+    public V remove(Object key) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.writeLock().lock();
+        try {
+            Node<V> node = liveNode(segment, key, now());
+            if (node == null) {
+                return null;
+            }
+            unlink(segment, key, node);
+            return node.value;
+        } finally {
+            unlockWrite(segment);
+        }
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (value == null) {
+            return false;
+        }
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.writeLock().lock();
+        try {
+            Node<V> node = liveNode(segment, key, now());
+            if (node == null || !node.value.equals(value)) {
+                return false;
+            }
+            unlink(segment, key, node);
+            return true;
+        } finally {
+            unlockWrite(segment);
+        }
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Objects.requireNonNull(oldValue, "Old value cannot be null");
+        Objects.requireNonNull(newValue, "New value cannot be null");
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.writeLock().lock();
+        try {
+            long now = now();
+            Node<V> node = liveNode(segment, key, now);
+            if (node == null || !node.value.equals(oldValue)) {
+                return false;
+            }
+            update(segment, key, node, newValue, now);
+        } finally {
+            unlockWrite(segment);
+        }
+        evictToMaximum();
+        return true;
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        Objects.requireNonNull(value, "Value cannot be null");
+        Segment<K, V> segment = segmentFor(key);
+        V previous;
+        segment.lock.writeLock().lock();
+        try {
+            long now = now();
+            Node<V> node = liveNode(segment, key, now);
+            if (node == null) {
+                return null;
+            }
+            previous = node.value;
+            update(segment, key, node, value, now);
+        } finally {
+            unlockWrite(segment);
+        }
+        evictToMaximum();
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.readLock().lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.readLock().unlock();
+            }
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.lock.writeLock().lock();
+            try {
+                segment.map.clear();
+                weight.addAndGet(-segment.weight);
+                segment.weight = 0;
+            } finally {
+                unlockWrite(segment);
+            }
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> entries = entrySet;
+        if (entries == null) {
+            entries = new EntrySet();
+            entrySet = entries;
+        }
+        return entries;
+    }
+
+    private V lookup(Object key, boolean recordStats) {
+        Segment<K, V> segment = segmentFor(key);
+        long now = now();
+        Lock lock = accessOrder ? segment.lock.writeLock() : segment.lock.readLock();
+        V value = null;
+        boolean expired = false;
+
+        lock.lock();
+        try {
+            Node<V> node = segment.map.get(key);
+            if (node != null) {
+                if (isExpired(node, now)) {
+                    expired = true;
+                } else {
+                    if (expireAfterAccessNanos > 0) {
+                        node.accessNanos = now;
+                    }
+                    if (accessOrder) {
+                        node.order = System.nanoTime();
+                    }
+                    value = node.value;
+                }
+            }
+        } finally {
+            if (accessOrder) {
+                unlockWrite(segment);
+            } else {
+                lock.unlock();
+            }
+        }
+
+        if (expired) {
+            removeIfExpired(segment, key, now);
+        }
+        if (recordStats) {
+            (value != null ? hits : misses).increment();
+        }
+        return value;
+    }
+
+    private V write(K key, V value, boolean onlyIfAbsent) {
+        Objects.requireNonNull(key, "Key cannot be null");
+        Objects.requireNonNull(value, "Value cannot be null");
+        Segment<K, V> segment = segmentFor(key);
+        V previous = null;
+        segment.lock.writeLock().lock();
+        try {
+            long now = now();
+            Node<V> node = liveNode(segment, key, now);
+            if (node == null) {
+                insert(segment, key, value, now);
+            } else {
+                previous = node.value;
+                if (onlyIfAbsent) {
+                    touch(segment, key, node, now);
+                    return previous;
+                }
+                update(segment, key, node, value, now);
+            }
+        } finally {
+            unlockWrite(segment);
+        }
+        evictToMaximum();
+        return previous;
+    }
+
+    /**
+     * Get the node for a key, dropping it if it has expired. Requires the write lock.
+     */
+    private Node<V> liveNode(Segment<K, V> segment, Object key, long now) {
+        Node<V> node = segment.map.get(key);
+        if (node != null && isExpired(node, now)) {
+            unlink(segment, key, node);
+            evictions.increment();
+            return null;
+        }
+        return node;
+    }
+
+    /**
+     * Add a node for a key that has none, unless it alone is heavier than the maximum.
+     * Requires the write lock; the caller evicts to the maximum after releasing it.
+     */
+    private void insert(Segment<K, V> segment, K key, V value, long now) {
+        int nodeWeight = weigh(key, value);
+        if (nodeWeight > maximum) {
+            evictions.increment();
+            return;
+        }
+        segment.map.put(key, new Node<>(value, nodeWeight, now));
+        segment.weight += nodeWeight;
+        weight.addAndGet(nodeWeight);
+        evictExpired(segment, now);
+    }
+
+    /**
+     * Replace the value of a node, dropping the node if the new value alone is heavier than
+     * the maximum. Requires the write lock; the caller evicts to the maximum after releasing it.
+     */
+    private void update(Segment<K, V> segment, K key, Node<V> node, V value, long now) {
+        int nodeWeight = weigh(key, value);
+        if (nodeWeight > maximum) {
+            unlink(segment, key, node);
+            evictions.increment();
+            return;
+        }
+        segment.weight += nodeWeight - node.weight;
+        weight.addAndGet(nodeWeight - node.weight);
+        node.value = value;
+        node.weight = nodeWeight;
+        node.writeNanos = now;
+        node.accessNanos = now;
+        if (accessOrder) {
+            node.order = System.nanoTime();
+            segment.map.get(key);
+        }
+        evictExpired(segment, now);
+    }
+
+    private void touch(Segment<K, V> segment, K key, Node<V> node, long now) {
+        node.accessNanos = now;
+        if (accessOrder) {
+            node.order = System.nanoTime();
+            segment.map.get(key);
+        }
+    }
+
+    private void unlink(Segment<K, V> segment, Object key, Node<V> node) {
+        segment.map.remove(key);
+        segment.weight -= node.weight;
+        weight.addAndGet(-node.weight);
+    }
+
+    /**
+     * Drop expired nodes from the head of a segment. Requires the write lock.
+     */
+    private void evictExpired(Segment<K, V> segment, long now) {
+        if (!expires()) {
+            return;
+        }
+        Iterator<Node<V>> eldest = segment.map.values().iterator();
+        while (eldest.hasNext()) {
+            Node<V> node = eldest.next();
+            if (!isExpired(node, now)) {
+                return;
+            }
+            eldest.remove();
+            segment.weight -= node.weight;
+            weight.addAndGet(-node.weight);
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Evict the oldest head across all segments until the total fits the maximum. Must be
+     * called without holding a segment lock, as it locks the segments it evicts from.
+     */
+    private void evictToMaximum() {
+        while (weight.get() > maximum) {
+            Segment<K, V> victim = null;
+            long oldest = 0;
+            for (Segment<K, V> segment : segments) {
+                Node<V> head = segment.head;
+                if (head != null && (victim == null || head.order - oldest < 0)) {
+                    victim = segment;
+                    oldest = head.order;
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+
+            victim.lock.writeLock().lock();
+            try {
+                Iterator<Node<V>> eldest = victim.map.values().iterator();
+                if (weight.get() > maximum && eldest.hasNext()) {
+                    Node<V> node = eldest.next();
+                    eldest.remove();
+                    victim.weight -= node.weight;
+                    weight.addAndGet(-node.weight);
+                    evictions.increment();
+                }
+            } finally {
+                unlockWrite(victim);
+            }
+        }
+    }
+
+    /**
+     * Publish the head of a segment for {@link #evictToMaximum} and release its write lock.
+     */
+    private void unlockWrite(Segment<K, V> segment) {
+        Iterator<Node<V>> nodes = segment.map.values().iterator();
+        segment.head = nodes.hasNext() ? nodes.next() : null;
+        segment.lock.writeLock().unlock();
+    }
+
+    private void removeIfExpired(Segment<K, V> segment, Object key, long now) {
+        segment.lock.writeLock().lock();
+        try {
+            liveNode(segment, key, now);
+        } finally {
+            unlockWrite(segment);
+        }
+    }
+
+    private int weigh(K key, V value) {
+        if (weigher == null) {
+            return 1;
+        }
+        int weight = weigher.applyAsInt(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight cannot be negative");
+        }
+        return weight;
+    }
+
+    private boolean expires() {
+        return expireAfterWriteNanos > 0 || expireAfterAccessNanos > 0;
+    }
+
+    private long now() {
+        return expires() ? System.nanoTime() : 0;
+    }
+
+    private boolean isExpired(Node<V> node, long now) {
+        return (expireAfterWriteNanos > 0 && now - node.writeNanos >= expireAfterWriteNanos)
+                || (expireAfterAccessNanos > 0 && now - node.accessNanos >= expireAfterAccessNanos);
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & segmentMask];
+    }
+
+    private static final class Segment<K, V> {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final LinkedHashMap<K, Node<V>> map;
+
+        // Guarded by the write lock
+        long weight = 0;
+
+        // The eldest node as of the last write, read without the lock
+        volatile Node<V> head;
+
+        Segment(boolean accessOrder) {
+            this.map = new LinkedHashMap<>(16, 0.75f, accessOrder);
+        }
+    }
+
+    private static final class Node<V> {
+        V value;
+        int weight;
+        long writeNanos;
+        volatile long accessNanos;
+        // nanoTime of the insertion (FIFO) or last access (LRU)
+        volatile long order;
+
+        Node(V value, int weight, long now) {
+            this.value = value;
+            this.weight = weight;
+            this.writeNanos = now;
+            this.accessNanos = now;
+            this.order = System.nanoTime();
+        }
+    }
+
+    /**
+     * Weakly consistent view: iterators walk a per-segment snapshot, and removal and
+     * {@code setValue} write through to the map.
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            List<Map.Entry<K, V>> snapshot = new ArrayList<>();
+            long now = now();
+            for (Segment<K, V> segment : segments) {
+                segment.lock.readLock().lock();
+                try {
+                    segment.map.forEach((key, node) -> {
+                        if (!isExpired(node, now)) {
+                            snapshot.add(new WriteThroughEntry(key, node.value));
+                        }
+                    });
+                } finally {
+                    segment.lock.readLock().unlock();
+                }
+            }
+
+            Iterator<Map.Entry<K, V>> iterator = snapshot.iterator();
+            return new Iterator<>() {
+                private Map.Entry<K, V> current;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Map.Entry<K, V> next() {
+                    current = iterator.next();
+                    return current;
+                }
+
+                @Override
+                public void remove() {
+                    if (current == null) {
+                        throw new IllegalStateException();
+                    }
+                    SegmentedLinkedMap.this.remove(current.getKey(), current.getValue());
+                    current = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return SegmentedLinkedMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            SegmentedLinkedMap.this.clear();
+        }
+    }
+
+    private final class WriteThroughEntry extends AbstractMap.SimpleEntry<K, V> {
+        WriteThroughEntry(K key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            V previous = super.setValue(value);
+            put(getKey(), value);
+            return previous;
+        }
+    }
+}
\ No newline at end of file
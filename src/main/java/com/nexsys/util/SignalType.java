@@ -6,13 +6,20 @@ import java.util.Objects;
 /**
  * Generic wrapper around a String signal type.
  *
+ * Instances are interned: equal values share one instance, so equality is usually an
+ * identity check and the hash is computed once. Unused instances are garbage collected.
+ *
  * @param <P> the parameter type for the signal
  */
 public final class SignalType<P> implements CharSequence {
+    private static final TypeInterner<SignalType<?>> INTERNER = new TypeInterner<>(SignalType::new);
+
     private final String value;
+    private final int hash;
 
     private SignalType(String value) {
-        this.value = Objects.requireNonNull(value, "Signal value cannot be null");
+        this.value = value;
+        this.hash = value.hashCode();
     }
 
     /**
@@ -20,10 +27,12 @@ public final class SignalType<P> implements CharSequence {
      *
      * @param value the signal value
      * @param <P> the parameter type
-     * @return a new SignalType instance
+     * @return the shared SignalType instance for the value
      */
+    @SuppressWarnings("unchecked")
     public static <P> SignalType<P> of(String value) {
-        return new SignalType<>(value);
+        Objects.requireNonNull(value, "Signal value cannot be null");
+        return (SignalType<P>) INTERNER.intern(value);
     }
 
     /**
@@ -32,10 +41,10 @@ public final class SignalType<P> implements CharSequence {
      * @param format the format string
      * @param args the format arguments
      * @param <P> the parameter type
-     * @return a new formatted SignalType instance
+     * @return the shared SignalType instance for the formatted value
      */
     public static <P> SignalType<P> format(String format, Object... args) {
-        return new SignalType<>(String.format(format, args));
+        return of(TypeInterner.format(format, args));
     }
 
     @Override
@@ -62,11 +71,11 @@ public final class SignalType<P> implements CharSequence {
     public boolean equals(Object obj) {
         if (this == obj) return true;
         if (!(obj instanceof SignalType<?> other)) return false;
-        return value.equals(other.value);
+        return hash == other.hash && value.equals(other.value);
     }
 
     @Override
     public int hashCode() {
-        return value.hashCode();
+        return hash;
     }
 }
\ No newline at end of file
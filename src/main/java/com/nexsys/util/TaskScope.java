@@ -0,0 +1,283 @@
+// src/main/java/com/nexsys/util/TaskScope.java
+package com.nexsys.util;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Structured scope for concurrent subtasks, each running on its own virtual thread.
+ *
+ * The owner forks subtasks and takes their results in completion order. At most
+ * {@code maxConcurrency} subtasks run at once; {@link #fork} waits for a free slot, so tasks
+ * are started lazily and a scope never holds more than that many threads. Under
+ * {@link Policy#FAIL_FAST} the first failure shuts the scope down, which interrupts all
+ * running siblings. Closing the scope shuts it down and waits for every subtask to exit,
+ * so no subtask outlives the block that opened it:
+ *
+ * <pre>{@code
+ * try (TaskScope<Status> scope = TaskScope.open(TaskScope.Policy.FAIL_FAST, 8)) {
+ *     for (Device device : devices) {
+ *         scope.fork(device::pollStatus);
+ *     }
+ *     TaskScope.Completion<Status> completion;
+ *     while ((completion = scope.take()) != null) {
+ *         handle(completion.value());
+ *     }
+ * }
+ * }</pre>
+ *
+ * The scope is meant to be used by the thread that opened it.
+ *
+ * @param <T> the subtask result type
+ */
+public final class TaskScope<T> implements AutoCloseable {
+    private static final ThreadFactory THREADS = Thread.ofVirtual().name("task-scope-", 0).factory();
+
+    private final Policy policy;
+    private final int maxConcurrency;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    // Guarded by lock
+    private final Queue<Completion<T>> completed = new ArrayDeque<>();
+    private final Set<Thread> threads = new HashSet<>();
+    private int running = 0;
+    private boolean shutdown = false;
+    private boolean closed = false;
+    private Throwable failure;
+
+    /**
+     * What a scope does when a subtask fails.
+     */
+    public enum Policy {
+        /** Shut the scope down and cancel the running siblings. */
+        FAIL_FAST,
+        /** Keep going; failures are delivered as completions like results. */
+        COLLECT_ALL
+    }
+
+    /**
+     * Outcome of a subtask.
+     *
+     * @param value the result, or null if the subtask failed
+     * @param failure the exception thrown by the subtask, or null if it succeeded
+     * @param <T> the result type
+     */
+    public record Completion<T>(T value, Throwable failure) {
+        public boolean failed() {
+            return failure != null;
+        }
+    }
+
+    private TaskScope(Policy policy, int maxConcurrency) {
+        this.policy = policy;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Open a scope.
+     *
+     * @param policy the failure policy
+     * @param maxConcurrency maximum number of subtasks running at once
+     * @param <T> the subtask result type
+     * @return the scope
+     */
+    public static <T> TaskScope<T> open(Policy policy, int maxConcurrency) {
+        Objects.requireNonNull(policy, "Policy cannot be null");
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive");
+        }
+        return new TaskScope<>(policy, maxConcurrency);
+    }
+
+    /**
+     * Start a subtask, waiting while {@code maxConcurrency} subtasks are running.
+     *
+     * @param task the subtask
+     * @return true if the subtask was started, false if the scope has been shut down
+     * @throws InterruptedException if interrupted while waiting for a free slot
+     * @throws IllegalStateException if the scope is closed
+     */
+    public boolean fork(Callable<? extends T> task) throws InterruptedException {
+        Objects.requireNonNull(task, "Task cannot be null");
+        lock.lockInterruptibly();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Scope is closed");
+            }
+            while (running >= maxConcurrency && !shutdown) {
+                changed.await();
+            }
+            if (shutdown) {
+                return false;
+            }
+            Thread thread = THREADS.newThread(() -> run(task));
+            threads.add(thread);
+            running++;
+            thread.start();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take the next completed subtask, waiting for one if necessary.
+     *
+     * @return the completion, or null if no forked subtask is outstanding or the scope has
+     *         been shut down and all completions delivered before that were taken
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Completion<T> take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (completed.isEmpty()) {
+                if (running == 0 || shutdown) {
+                    return null;
+                }
+                changed.await();
+            }
+            return completed.poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take the next completed subtask without waiting.
+     *
+     * @return the completion, or null if none is available
+     */
+    public Completion<T> poll() {
+        lock.lock();
+        try {
+            return completed.poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the failure that shut down a {@link Policy#FAIL_FAST} scope.
+     *
+     * @return the first failure, or null
+     */
+    public Throwable failure() {
+        lock.lock();
+        try {
+            return failure;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Check whether the scope has been shut down.
+     *
+     * @return true if no more subtasks can be forked
+     */
+    public boolean isShutdown() {
+        lock.lock();
+        try {
+            return shutdown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Shut the scope down: running subtasks are interrupted, and their results as well as
+     * further forks are discarded. Completions delivered before remain available to {@link #take}.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdownLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until all forked subtasks have exited.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void join() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (running > 0) {
+                changed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Shut the scope down and wait until all subtasks have exited.
+     */
+    @Override
+    public void close() {
+        boolean interrupted = false;
+        lock.lock();
+        try {
+            closed = true;
+            shutdownLocked();
+            while (running > 0) {
+                try {
+                    changed.await();
+                } catch (InterruptedException e) {
+                    // Subtasks are already interrupted; keep waiting so none outlives the scope
+                    interrupted = true;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(Callable<? extends T> task) {
+        Completion<T> completion;
+        try {
+            completion = new Completion<>(task.call(), null);
+        } catch (Throwable e) {
+            completion = new Completion<>(null, e);
+        }
+
+        lock.lock();
+        try {
+            threads.remove(Thread.currentThread());
+            running--;
+            if (!shutdown) {
+                completed.add(completion);
+                if (completion.failed() && policy == Policy.FAIL_FAST) {
+                    failure = completion.failure();
+                    shutdownLocked();
+                }
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void shutdownLocked() {
+        if (shutdown) {
+            return;
+        }
+        shutdown = true;
+        threads.forEach(Thread::interrupt);
+        changed.signalAll();
+    }
+}
\ No newline at end of file
@@ -4,18 +4,20 @@ package com.nexsys.util;
 import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
 /**
  * Utilities for operations with timeouts.
+ *
+ * Work runs on {@link NexsysExecutor} virtual threads and timeouts use its shared timing
+ * wheel, so no call creates a platform thread or a private scheduler. A timeout interrupts
+ * the thread running the work.
  */
 public final class TimeoutUtils {
-    private static final ScheduledExecutorService scheduler =
-            Executors.newScheduledThreadPool(1, r -> {
-                Thread t = new Thread(r, "TimeoutUtils-Scheduler");
-                t.setDaemon(true);
-                return t;
-            });
+    private static final String TASK_NAME = "TimeoutUtils";
+    private static final LongAdder completed = new LongAdder();
+    private static final LongAdder timedOut = new LongAdder();
 
     private TimeoutUtils() {
         // Utility class
@@ -24,6 +26,9 @@ public final class TimeoutUtils {
     /**
      * Execute a supplier asynchronously with a timeout.
      *
+     * When the timeout expires, the future fails with a {@link TimeoutException} and the
+     * supplier is interrupted. Cancelling the future interrupts the supplier as well.
+     *
      * @param supplier the supplier to execute
      * @param timeout the timeout duration
      * @param <T> the result type
@@ -33,15 +38,46 @@ public final class TimeoutUtils {
         Objects.requireNonNull(supplier, "Supplier cannot be null");
         Objects.requireNonNull(timeout, "Timeout cannot be null");
 
-        CompletableFuture<T> future = CompletableFuture.supplyAsync(supplier);
+        NexsysExecutor executor = NexsysExecutor.getInstance();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        FutureTask<T> task = new FutureTask<>(supplier::get) {
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    future.complete(get());
+                } catch (ExecutionException e) {
+                    future.completeExceptionally(new CompletionException(e.getCause()));
+                } catch (InterruptedException e) {
+                    // Cannot happen, the task is done
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        try {
+            executor.execute(TASK_NAME, task);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
-        ScheduledFuture<?> timeoutFuture = scheduler.schedule(
-                () -> future.completeExceptionally(new TimeoutException("Operation timed out")),
-                timeout.toMillis(),
-                TimeUnit.MILLISECONDS
-        );
+        ScheduledFuture<?> timeoutFuture = executor.runLater(TASK_NAME, () -> {
+            if (future.completeExceptionally(new TimeoutException("Operation timed out"))) {
+                timedOut.increment();
+                task.cancel(true);
+            }
+        }, timeout);
 
-        future.whenComplete((result, error) -> timeoutFuture.cancel(false));
+        future.whenComplete((result, error) -> {
+            timeoutFuture.cancel(false);
+            if (future.isCancelled()) {
+                task.cancel(true);
+            } else if (!(error instanceof TimeoutException)) {
+                completed.increment();
+            }
+        });
 
         return future;
     }
@@ -64,7 +100,8 @@ public final class TimeoutUtils {
     }
 
     /**
-     * Execute a callable with a timeout, blocking until completion.
+     * Execute a callable with a timeout on a virtual thread, blocking until completion.
+     * The callable is interrupted when the timeout expires or the caller is interrupted.
      *
      * @param callable the callable to execute
      * @param timeout the timeout duration
@@ -80,15 +117,43 @@ public final class TimeoutUtils {
         Objects.requireNonNull(timeout, "Timeout cannot be null");
 
         FutureTask<T> task = new FutureTask<>(callable);
-        Thread thread = new Thread(task, "TimeoutUtils-Worker");
-        thread.start();
+        NexsysExecutor.getInstance().execute(TASK_NAME, task);
 
         try {
-            return task.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
-        } finally {
-            if (!task.isDone()) {
-                thread.interrupt();
+            T result = task.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            completed.increment();
+            return result;
+        } catch (ExecutionException e) {
+            completed.increment();
+            throw e;
+        } catch (TimeoutException e) {
+            if (task.cancel(true)) {
+                timedOut.increment();
+                throw e;
             }
+            // Finished just as the timeout expired
+            completed.increment();
+            return task.get();
+        } finally {
+            task.cancel(true);
         }
     }
+
+    /**
+     * Get the number of calls that finished, successfully or not, before their timeout.
+     *
+     * @return the number of completed calls
+     */
+    public static long completedCount() {
+        return completed.sum();
+    }
+
+    /**
+     * Get the number of calls that timed out.
+     *
+     * @return the number of timed out calls
+     */
+    public static long timedOutCount() {
+        return timedOut.sum();
+    }
 }
\ No newline at end of file
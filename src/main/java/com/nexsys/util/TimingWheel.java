@@ -0,0 +1,299 @@
+// src/main/java/com/nexsys/util/TimingWheel.java
+package com.nexsys.util;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hierarchical hashed timing wheel.
+ *
+ * Scheduling and cancelling are O(1): callers only enqueue the timeout into a lock-free
+ * queue, and the single ticker thread places it into a bucket. Each wheel level has
+ * {@value #SLOTS} buckets; a bucket on level {@code n} spans {@code SLOTS^n} ticks and is
+ * cascaded into the lower levels when the wheel below completes a rotation. Expired
+ * timeouts run on the ticker thread, so their tasks must only hand work off to an executor.
+ */
+final class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Bucket[][] wheels = new Bucket[LEVELS][SLOTS];
+    private final Queue<Timeout<?>> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout<?>> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread ticker;
+    private volatile boolean stopped = false;
+
+    // Owned by the ticker thread
+    private long currentTick = 0;
+
+    /**
+     * Create and start a timing wheel.
+     *
+     * @param tick the tick resolution
+     * @param threadName the name of the ticker thread
+     */
+    TimingWheel(Duration tick, String threadName) {
+        Objects.requireNonNull(tick, "Tick cannot be null");
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickNanos = tick.toNanos();
+        for (Bucket[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[i] = new Bucket();
+            }
+        }
+        this.startNanos = System.nanoTime();
+        this.ticker = new Thread(this::run, threadName);
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * Schedule a task to run on the ticker thread after the given delay.
+     *
+     * @param task the task, which must not block
+     * @param delay the delay
+     * @return a future that can cancel the task
+     */
+    ScheduledFuture<?> schedule(Runnable task, Duration delay) {
+        Objects.requireNonNull(task, "Task cannot be null");
+        if (stopped) {
+            throw new RejectedExecutionException("Timing wheel is stopped");
+        }
+
+        long delayNanos = Math.max(0, delay.toNanos());
+        Timeout<?> timeout = new Timeout<>(this, task, System.nanoTime() + delayNanos);
+        pending.incrementAndGet();
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Get the number of timeouts that have neither fired nor been cancelled.
+     *
+     * @return the number of pending timeouts
+     */
+    int pendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Stop the ticker thread. Pending timeouts are cancelled.
+     *
+     * @param timeout how long to wait for the ticker thread to exit
+     */
+    void stop(Duration timeout) throws InterruptedException {
+        stopped = true;
+        LockSupport.unpark(ticker);
+        ticker.join(timeout.toMillis());
+    }
+
+    private void run() {
+        while (!stopped) {
+            long deadline = startNanos + (currentTick + 1) * tickNanos;
+            long waitNanos = deadline - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(this, waitNanos);
+                continue;
+            }
+
+            currentTick++;
+            transferScheduled();
+            removeCancelled();
+            cascade();
+            expire(wheels[0][(int) (currentTick & SLOT_MASK)]);
+        }
+
+        cancelAll();
+    }
+
+    private void transferScheduled() {
+        Timeout<?> timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (!timeout.isCancelled()) {
+                timeout.deadlineTick = Math.max(currentTick, ceilDiv(timeout.deadlineNanos - startNanos, tickNanos));
+                place(timeout);
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout<?> timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                return;
+            }
+            Bucket bucket = wheels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+            Timeout<?> timeout = bucket.clear();
+            while (timeout != null) {
+                Timeout<?> next = timeout.next;
+                timeout.next = null;
+                timeout.prev = null;
+                place(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    private void place(Timeout<?> timeout) {
+        long remaining = timeout.deadlineTick - currentTick;
+        if (remaining <= 0) {
+            // Due in the current tick; the expiry pass below picks it up from this slot
+            wheels[0][(int) (currentTick & SLOT_MASK)].add(timeout);
+            return;
+        }
+
+        int level = 0;
+        while (level < LEVELS - 1 && remaining >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((timeout.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        wheels[level][slot].add(timeout);
+    }
+
+    private void expire(Bucket bucket) {
+        Timeout<?> timeout = bucket.head;
+        while (timeout != null) {
+            Timeout<?> next = timeout.next;
+            if (timeout.deadlineTick <= currentTick) {
+                bucket.remove(timeout);
+                // FutureTask captures failures of the task itself
+                timeout.run();
+            }
+            timeout = next;
+        }
+    }
+
+    private void cancelAll() {
+        transferScheduled();
+        for (Bucket[] wheel : wheels) {
+            for (Bucket bucket : wheel) {
+                Timeout<?> timeout = bucket.clear();
+                while (timeout != null) {
+                    Timeout<?> next = timeout.next;
+                    timeout.cancel(false);
+                    timeout = next;
+                }
+            }
+        }
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return value <= 0 ? 0 : (value + divisor - 1) / divisor;
+    }
+
+    /**
+     * Doubly linked list of timeouts, only touched by the ticker thread.
+     */
+    private static final class Bucket {
+        Timeout<?> head;
+        Timeout<?> tail;
+
+        void add(Timeout<?> timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout<?> timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        Timeout<?> clear() {
+            Timeout<?> first = head;
+            for (Timeout<?> t = first; t != null; t = t.next) {
+                t.bucket = null;
+            }
+            head = null;
+            tail = null;
+            return first;
+        }
+    }
+
+    /**
+     * A scheduled task. Completes when the task has run on the ticker thread.
+     */
+    private static final class Timeout<V> extends FutureTask<V> implements ScheduledFuture<V> {
+        private final TimingWheel wheel;
+        final long deadlineNanos;
+
+        // Owned by the ticker thread
+        long deadlineTick;
+        Bucket bucket;
+        Timeout<?> prev;
+        Timeout<?> next;
+
+        Timeout(TimingWheel wheel, Runnable task, long deadlineNanos) {
+            super(task, null);
+            this.wheel = wheel;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                wheel.cancelled.add(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        protected void done() {
+            // Runs exactly once, whether the timeout fired or was cancelled
+            wheel.pending.decrementAndGet();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other == this) {
+                return 0;
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,179 @@
+// src/main/java/com/nexsys/util/TypeInterner.java
+package com.nexsys.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Canonicalizing pool for the typed string wrappers ({@link EventType}, {@link SignalType}).
+ *
+ * Equal values share one instance, which is only weakly referenced by the pool so that
+ * dynamically formatted per-device types can be garbage collected once unused.
+ *
+ * @param <T> the interned type
+ */
+final class TypeInterner<T> {
+    private static final Map<String, Template> TEMPLATES = new ConcurrentHashMap<>();
+    private static volatile LocaleDigits localeDigits = new LocaleDigits(null, '0');
+
+    private final Map<String, Ref<T>> pool = new ConcurrentHashMap<>();
+    private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+    private final Function<String, T> factory;
+
+    TypeInterner(Function<String, T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Get the canonical instance for a value, creating it on first use.
+     *
+     * @param value the value
+     * @return the shared instance
+     */
+    T intern(String value) {
+        expungeStaleEntries();
+
+        Ref<T> ref = pool.get(value);
+        T existing = ref != null ? ref.get() : null;
+        if (existing != null) {
+            return existing;
+        }
+
+        // Keep a strong reference so the instance cannot be collected before it is returned
+        List<T> holder = new ArrayList<>(1);
+        pool.compute(value, (key, current) -> {
+            T instance = current != null ? current.get() : null;
+            if (instance != null) {
+                holder.add(instance);
+                return current;
+            }
+            T created = factory.apply(key);
+            holder.add(created);
+            return new Ref<>(key, created, queue);
+        });
+        return holder.getFirst();
+    }
+
+    /**
+     * Get the number of live entries in the pool.
+     *
+     * @return the pool size
+     */
+    int size() {
+        expungeStaleEntries();
+        return pool.size();
+    }
+
+    private void expungeStaleEntries() {
+        Object stale;
+        while ((stale = queue.poll()) != null) {
+            Ref<?> ref = (Ref<?>) stale;
+            pool.remove(ref.key, ref);
+        }
+    }
+
+    /**
+     * Format a type name. Formats built only from plain {@code %s}, {@code %d}, {@code %%} and
+     * {@code %n} are compiled once and rendered by concatenation; anything else, including
+     * {@link Formattable} arguments, falls back to {@link String#format}. Both paths produce
+     * identical output.
+     *
+     * @param format the format string
+     * @param args the format arguments
+     * @return the formatted name
+     */
+    static String format(String format, Object... args) {
+        Template template = TEMPLATES.computeIfAbsent(format, Template::compile);
+        if (template.literals == null || args.length < template.conversions.length) {
+            return String.format(format, args);
+        }
+
+        StringBuilder builder = new StringBuilder(format.length() + 16 * template.conversions.length);
+        for (int i = 0; i < template.conversions.length; i++) {
+            builder.append(template.literals[i]);
+            Object arg = args[i];
+            if (template.conversions[i] == 'd') {
+                if (!(arg instanceof Integer || arg instanceof Long || arg instanceof Short || arg instanceof Byte)
+                        || !hasAsciiDigits()) {
+                    return String.format(format, args);
+                }
+                builder.append(((Number) arg).longValue());
+            } else {
+                if (arg instanceof Formattable) {
+                    return String.format(format, args);
+                }
+                builder.append(arg);
+            }
+        }
+        builder.append(template.literals[template.conversions.length]);
+        return builder.toString();
+    }
+
+    private static boolean hasAsciiDigits() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        LocaleDigits digits = localeDigits;
+        if (digits.locale != locale) {
+            digits = new LocaleDigits(locale, DecimalFormatSymbols.getInstance(locale).getZeroDigit());
+            localeDigits = digits;
+        }
+        return digits.zeroDigit == '0';
+    }
+
+    private static final class Ref<T> extends WeakReference<T> {
+        final String key;
+
+        Ref(String key, T referent, ReferenceQueue<T> queue) {
+            super(referent, queue);
+            this.key = key;
+        }
+    }
+
+    private record LocaleDigits(Locale locale, char zeroDigit) {}
+
+    /**
+     * A format string split into literal text and plain conversions. {@code literals} is
+     * {@code null} when the format uses anything the fast path does not handle.
+     */
+    private record Template(String[] literals, char[] conversions) {
+        static Template compile(String format) {
+            List<String> literals = new ArrayList<>();
+            StringBuilder conversions = new StringBuilder();
+            StringBuilder literal = new StringBuilder();
+
+            for (int i = 0; i < format.length(); i++) {
+                char c = format.charAt(i);
+                if (c != '%') {
+                    literal.append(c);
+                    continue;
+                }
+                if (i + 1 >= format.length()) {
+                    return new Template(null, null);
+                }
+                char conversion = format.charAt(++i);
+                switch (conversion) {
+                    case '%' -> literal.append('%');
+                    case 'n' -> literal.append(System.lineSeparator());
+                    case 's', 'd' -> {
+                        literals.add(literal.toString());
+                        literal.setLength(0);
+                        conversions.append(conversion);
+                    }
+                    default -> {
+                        return new Template(null, null);
+                    }
+                }
+            }
+
+            literals.add(literal.toString());
+            return new Template(literals.toArray(new String[0]), conversions.toString().toCharArray());
+        }
+    }
+}
\ No newline at end of file
@@ -3,8 +3,17 @@ package com.nexsys.util;
 
 import com.nexsys.util.units.*;
 
+import java.nio.BufferOverflowException;
+import java.nio.DoubleBuffer;
+import java.util.Objects;
+
 /**
  * Utility class for converting between units.
+ *
+ * Conversions are looked up in a table of precomputed coefficients, built once per unit
+ * family and indexed by enum ordinal (see {@link UnitIndex}). Linear conversions, which
+ * include temperatures, are a single multiply-add; only Beaufort and conversions between
+ * direct and inverse energy per distance are computed case by case.
  */
 // TODO add dependency tech.units:indriya:3.2 to build.gradle for future JSR-385 swap
 public final class UnitConverter {
@@ -21,91 +30,145 @@ public final class UnitConverter {
      * @throws IllegalArgumentException if units are incompatible
      */
     public static double convert(double value, Unit from, Unit to) {
-        if (from.equals(to)) {
+        if (from == to) {
             return value;
         }
 
-        if (!from.getClass().equals(to.getClass())) {
+        if (from.getClass() != to.getClass()) {
             throw new IllegalArgumentException("Cannot convert between different unit types");
         }
 
-        return switch (from) {
-            case TemperatureUnit fromTemp -> convertTemperature(value, fromTemp, (TemperatureUnit) to);
-            case SpeedUnit fromSpeed -> convertSpeed(value, fromSpeed, (SpeedUnit) to);
-            case EnergyDistanceUnit fromED -> convertEnergyDistance(value, fromED, (EnergyDistanceUnit) to);
-            case LengthUnit fromLength -> {
-                double metres = value * fromLength.toMetre();
-                yield metres / ((LengthUnit) to).toMetre();
-            }
-            case AreaUnit fromArea -> {
-                double squareMetres = value * fromArea.toSquareMetre();
-                yield squareMetres / ((AreaUnit) to).toSquareMetre();
-            }
-            case MassUnit fromMass -> {
-                double grams = value * fromMass.toGram();
-                yield grams / ((MassUnit) to).toGram();
-            }
-            case VolumeUnit fromVolume -> {
-                double cubicMetres = value * fromVolume.toCubicMetre();
-                yield cubicMetres / ((VolumeUnit) to).toCubicMetre();
-            }
-            case PressureUnit fromPressure -> {
-                double pascals = value * fromPressure.toPascal();
-                yield pascals / ((PressureUnit) to).toPascal();
-            }
-            case EnergyUnit fromEnergy -> {
-                double wattHours = value * fromEnergy.toWattHour();
-                yield wattHours / ((EnergyUnit) to).toWattHour();
-            }
-            case PowerUnit fromPower -> {
-                double watts = value * fromPower.toWatt();
-                yield watts / ((PowerUnit) to).toWatt();
-            }
-            case DataRateUnit fromDataRate -> {
-                double bitsPerSecond = value * fromDataRate.toBitPerSecond();
-                yield bitsPerSecond / ((DataRateUnit) to).toBitPerSecond();
-            }
-            case InformationUnit fromInfo -> {
-                double bits = value * fromInfo.toBit();
-                yield bits / ((InformationUnit) to).toBit();
-            }
-            case ElectricCurrentUnit fromCurrent -> {
-                double amperes = value * fromCurrent.toAmpere();
-                yield amperes / ((ElectricCurrentUnit) to).toAmpere();
-            }
-            case ElectricPotentialUnit fromPotential -> {
-                double volts = value * fromPotential.toVolt();
-                yield volts / ((ElectricPotentialUnit) to).toVolt();
-            }
-            case VolumeFlowRateUnit fromFlow -> {
-                double cubicMetresPerHour = value * fromFlow.toCubicMetrePerHour();
-                yield cubicMetresPerHour / ((VolumeFlowRateUnit) to).toCubicMetrePerHour();
-            }
-            case TimeUnit fromTime -> {
-                double seconds = value * fromTime.toSecond();
-                yield seconds / ((TimeUnit) to).toSecond();
-            }
-            case ReactiveEnergyUnit fromReactive -> {
-                double varh = value * fromReactive.toVarh();
-                yield varh / ((ReactiveEnergyUnit) to).toVarh();
-            }
-            case BloodGlucoseUnit fromGlucose -> {
-                double mmolPerL = value * fromGlucose.toMmolPerL();
-                yield mmolPerL / ((BloodGlucoseUnit) to).toMmolPerL();
-            }
-            case ConductivityUnit fromConductivity -> {
-                double microsiemenPerCm = value * fromConductivity.toMicrosiemenPerCm();
-                yield microsiemenPerCm / ((ConductivityUnit) to).toMicrosiemenPerCm();
-            }
-            case RatioUnit fromRatio -> {
-                double unitless = value * fromRatio.toUnitless();
-                yield unitless / ((RatioUnit) to).toUnitless();
-            }
-            case UnitlessUnit fromUnitless -> {
-                double unitless = value * fromUnitless.toUnitless();
-                yield unitless / ((UnitlessUnit) to).toUnitless();
+        UnitIndex.Family family = UnitIndex.family(from);
+
+        int pair = family.pair(from, to);
+        double scale = family.scale[pair];
+        if (Double.isNaN(scale)) {
+            return convertNonLinear(value, from, to);
+        }
+        return value * scale + family.offset[pair];
+    }
+
+    /**
+     * Convert every value of {@code src} into {@code dst}, which may be the same array.
+     * Linear conversions run as a single multiply-add loop over the arrays, which the JIT
+     * compiles to SIMD instructions; no {@link Quantity} or boxed value is created.
+     *
+     * @param src the values to convert
+     * @param from the source unit
+     * @param to the target unit
+     * @param dst receives the converted values, from index 0
+     * @throws IllegalArgumentException if units are incompatible
+     * @throws IndexOutOfBoundsException if {@code dst} is shorter than {@code src}
+     */
+    public static void convertAll(double[] src, Unit from, Unit to, double[] dst) {
+        convertAll(src, 0, from, to, dst, 0, src.length);
+    }
+
+    /**
+     * Convert {@code length} values of {@code src} starting at {@code srcPos} into {@code dst}
+     * starting at {@code dstPos}. The arrays may be the same, and the ranges may overlap.
+     *
+     * @param src the values to convert
+     * @param srcPos the first value to convert
+     * @param from the source unit
+     * @param to the target unit
+     * @param dst receives the converted values
+     * @param dstPos the position of the first converted value
+     * @param length the number of values
+     * @throws IllegalArgumentException if units are incompatible
+     * @throws IndexOutOfBoundsException if a range is out of bounds
+     */
+    public static void convertAll(double[] src, int srcPos, Unit from, Unit to,
+                                  double[] dst, int dstPos, int length) {
+        Objects.checkFromIndexSize(srcPos, length, src.length);
+        Objects.checkFromIndexSize(dstPos, length, dst.length);
+
+        if (from == to) {
+            System.arraycopy(src, srcPos, dst, dstPos, length);
+            return;
+        }
+        if (from.getClass() != to.getClass()) {
+            throw new IllegalArgumentException("Cannot convert between different unit types");
+        }
+
+        UnitIndex.Family family = UnitIndex.family(from);
+        int pair = family.pair(from, to);
+        double scale = family.scale[pair];
+        if (Double.isNaN(scale)) {
+            if (src == dst && dstPos > srcPos) {
+                for (int i = length - 1; i >= 0; i--) {
+                    dst[dstPos + i] = convertNonLinear(src[srcPos + i], from, to);
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    dst[dstPos + i] = convertNonLinear(src[srcPos + i], from, to);
+                }
             }
-        };
+            return;
+        }
+
+        double offset = family.offset[pair];
+        if (src == dst && dstPos > srcPos && dstPos < srcPos + length) {
+            // Converting forwards would overwrite values before reading them
+            System.arraycopy(src, srcPos, dst, dstPos, length);
+            srcPos = dstPos;
+        }
+        for (int i = 0; i < length; i++) {
+            dst[dstPos + i] = src[srcPos + i] * scale + offset;
+        }
+    }
+
+    /**
+     * Convert the remaining values of {@code src} into {@code dst}, like
+     * {@link DoubleBuffer#put(DoubleBuffer)}: both positions advance by the number of values.
+     * Heap buffers go through the array loop of {@link #convertAll(double[], Unit, Unit, double[])};
+     * other buffers are bulk-copied and then converted in place.
+     *
+     * @param src the values to convert
+     * @param from the source unit
+     * @param to the target unit
+     * @param dst receives the converted values; may be {@code src} to convert in place
+     * @throws IllegalArgumentException if units are incompatible
+     * @throws BufferOverflowException if {@code dst} has less room than {@code src} has values
+     * @throws java.nio.ReadOnlyBufferException if {@code dst} is read-only
+     */
+    public static void convertAll(DoubleBuffer src, Unit from, Unit to, DoubleBuffer dst) {
+        int length = src.remaining();
+        int srcPos = src.position();
+        int dstPos = dst.position();
+        if (length > dst.remaining()) {
+            throw new BufferOverflowException();
+        }
+
+        if (src.hasArray() && dst.hasArray()) {
+            convertAll(src.array(), src.arrayOffset() + srcPos, from, to,
+                    dst.array(), dst.arrayOffset() + dstPos, length);
+            src.position(srcPos + length);
+            dst.position(dstPos + length);
+            return;
+        }
+
+        if (from != to && from.getClass() != to.getClass()) {
+            throw new IllegalArgumentException("Cannot convert between different unit types");
+        }
+        if (src == dst) {
+            dst.position(dstPos + length);
+        } else {
+            dst.put(src);
+        }
+        if (from == to) {
+            return;
+        }
+
+        UnitIndex.Family family = UnitIndex.family(from);
+        int pair = family.pair(from, to);
+        double scale = family.scale[pair];
+        double offset = family.offset[pair];
+        boolean linear = !Double.isNaN(scale);
+        for (int i = dstPos; i < dstPos + length; i++) {
+            double value = dst.get(i);
+            dst.put(i, linear ? value * scale + offset : convertNonLinear(value, from, to));
+        }
     }
 
     /**
@@ -148,12 +211,15 @@ public final class UnitConverter {
         };
     }
 
-    private static double convertTemperature(double value, TemperatureUnit from, TemperatureUnit to) {
-        // Convert to Celsius first
-        double celsius = from.multiplier() * value + from.offset();
-
-        // Convert from Celsius to target
-        return (celsius - to.offset()) / to.multiplier();
+    /**
+     * Conversions the table cannot express as a multiply-add.
+     */
+    private static double convertNonLinear(double value, Unit from, Unit to) {
+        return switch (from) {
+            case SpeedUnit fromSpeed -> convertSpeed(value, fromSpeed, (SpeedUnit) to);
+            case EnergyDistanceUnit fromED -> convertEnergyDistance(value, fromED, (EnergyDistanceUnit) to);
+            default -> throw new IllegalStateException("No non-linear conversion from " + from + " to " + to);
+        };
     }
 
     private static double convertSpeed(double value, SpeedUnit from, SpeedUnit to) {
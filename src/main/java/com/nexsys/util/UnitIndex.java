@@ -0,0 +1,168 @@
+// src/main/java/com/nexsys/util/UnitIndex.java
+package com.nexsys.util;
+
+import com.nexsys.util.units.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dense numbering of every {@link Unit} constant and the conversion table between units of
+ * the same family, both built once at class load.
+ *
+ * Each family (one {@link Unit} enum) holds {@code scale} and {@code offset} arrays indexed by
+ * {@code from.ordinal() * size + to.ordinal()}, so a linear conversion is
+ * {@code value * scale + offset}. Pairs that are not linear (Beaufort, and inverse against
+ * direct energy per distance) have a NaN scale and are left to {@link UnitConverter}.
+ */
+final class UnitIndex {
+    private static final ClassValue<Family> FAMILIES = new ClassValue<>() {
+        @Override
+        protected Family computeValue(Class<?> type) {
+            Family family = FAMILIES_BY_TYPE.get(type);
+            if (family == null) {
+                throw new IllegalArgumentException("Unknown unit type " + type.getName());
+            }
+            return family;
+        }
+    };
+
+    private static final Map<Class<?>, Family> FAMILIES_BY_TYPE = new HashMap<>();
+
+    /** All units, by global index. */
+    private static final Unit[] UNITS;
+
+    static {
+        Class<?>[] types = Unit.class.getPermittedSubclasses();
+        int start = 0;
+        for (Class<?> type : types) {
+            Family family = new Family(start, (Unit[]) type.getEnumConstants());
+            FAMILIES_BY_TYPE.put(type, family);
+            start += family.size;
+        }
+        UNITS = new Unit[start];
+        for (Family family : FAMILIES_BY_TYPE.values()) {
+            System.arraycopy(family.units, 0, UNITS, family.start, family.size);
+        }
+    }
+
+    private UnitIndex() {} // Prevent instantiation
+
+    /**
+     * Get the family of a unit.
+     */
+    static Family family(Unit unit) {
+        return FAMILIES.get(unit.getClass());
+    }
+
+    /**
+     * Get the global index of a unit, between 0 and {@link #unitCount()}.
+     */
+    static int indexOf(Unit unit) {
+        return family(unit).start + ordinal(unit);
+    }
+
+    /**
+     * Get the unit with a global index.
+     */
+    static Unit unit(int index) {
+        return UNITS[index];
+    }
+
+    static int unitCount() {
+        return UNITS.length;
+    }
+
+    static int ordinal(Unit unit) {
+        return ((Enum<?>) unit).ordinal();
+    }
+
+    /**
+     * The units of one {@link Unit} enum and the conversions between them.
+     */
+    static final class Family {
+        final int start;
+        final int size;
+        final Unit[] units;
+        final double[] scale;
+        final double[] offset;
+
+        private Family(int start, Unit[] units) {
+            this.start = start;
+            this.size = units.length;
+            this.units = units;
+            this.scale = new double[size * size];
+            this.offset = new double[size * size];
+
+            // Each unit maps to the family's base unit as base = value * factor + shift
+            double[] factor = new double[size];
+            double[] shift = new double[size];
+            for (Unit unit : units) {
+                int i = ordinal(unit);
+                factor[i] = toBaseFactor(unit);
+                shift[i] = unit instanceof TemperatureUnit t ? t.offset() : 0.0;
+            }
+            for (int from = 0; from < size; from++) {
+                for (int to = 0; to < size; to++) {
+                    int pair = from * size + to;
+                    if (from == to) {
+                        scale[pair] = 1.0;
+                    } else if (isLinear(units[from], units[to])) {
+                        scale[pair] = factor[from] / factor[to];
+                        offset[pair] = (shift[from] - shift[to]) / factor[to];
+                    } else {
+                        scale[pair] = Double.NaN;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Get the table position of a conversion between two units of this family.
+         */
+        int pair(Unit from, Unit to) {
+            return ordinal(from) * size + ordinal(to);
+        }
+
+        @Override
+        public String toString() {
+            return "Family" + Arrays.toString(units);
+        }
+    }
+
+    private static boolean isLinear(Unit from, Unit to) {
+        return switch (from) {
+            case SpeedUnit s -> s != SpeedUnit.BEAUFORT && to != SpeedUnit.BEAUFORT;
+            case EnergyDistanceUnit e -> e.isInverse() == ((EnergyDistanceUnit) to).isInverse();
+            default -> true;
+        };
+    }
+
+    private static double toBaseFactor(Unit unit) {
+        return switch (unit) {
+            case TemperatureUnit u -> u.multiplier();
+            case SpeedUnit u -> u.toMetrePerSecond();
+            // Direct and inverse units convert within their kind as value / ratio * ratio
+            case EnergyDistanceUnit u -> 1.0 / u.toKwhPer100Km();
+            case LengthUnit u -> u.toMetre();
+            case AreaUnit u -> u.toSquareMetre();
+            case MassUnit u -> u.toGram();
+            case VolumeUnit u -> u.toCubicMetre();
+            case PressureUnit u -> u.toPascal();
+            case EnergyUnit u -> u.toWattHour();
+            case PowerUnit u -> u.toWatt();
+            case DataRateUnit u -> u.toBitPerSecond();
+            case InformationUnit u -> u.toBit();
+            case ElectricCurrentUnit u -> u.toAmpere();
+            case ElectricPotentialUnit u -> u.toVolt();
+            case VolumeFlowRateUnit u -> u.toCubicMetrePerHour();
+            case TimeUnit u -> u.toSecond();
+            case ReactiveEnergyUnit u -> u.toVarh();
+            case BloodGlucoseUnit u -> u.toMmolPerL();
+            case ConductivityUnit u -> u.toMicrosiemenPerCm();
+            case RatioUnit u -> u.toUnitless();
+            case UnitlessUnit u -> u.toUnitless();
+        };
+    }
+}
\ No newline at end of file
@@ -7,20 +7,42 @@ import java.util.HashMap;
 
 /**
  * Represents a system of measurement units (metric or US customary).
+ *
+ * Conversions are kept in a dense table indexed by device class ID and unit index, so a
+ * lookup allocates no key and compares no strings beyond one hash lookup of the device
+ * class. Callers on hot paths can resolve the ID once with {@link #deviceClassId} and use
+ * the ID overloads, and use {@link #convertInto} to get the converted value as a primitive.
  */
 public final class UnitSystem {
 
+    /** Device classes with conversions in any system, numbered from 0. Filled during class initialization. */
+    private static final Map<String, Integer> DEVICE_CLASS_IDS = new HashMap<>();
+
     private static final UnitSystem METRIC = createMetricSystem();
     private static final UnitSystem US_CUSTOMARY = createUsCustomarySystem();
 
     private final String name;
     private final Map<String, Unit> defaultUnits;
-    private final Map<DeviceClassUnitPair, Unit> conversions;
+    /** Target units by device class ID, then by {@link UnitIndex} index; null where none. */
+    private final Unit[][] conversions;
 
     private UnitSystem(String name, Map<String, Unit> defaultUnits, Map<DeviceClassUnitPair, Unit> conversions) {
         this.name = name;
         this.defaultUnits = Map.copyOf(defaultUnits);
-        this.conversions = Map.copyOf(conversions);
+
+        for (DeviceClassUnitPair pair : conversions.keySet()) {
+            if (!DEVICE_CLASS_IDS.containsKey(pair.deviceClass())) {
+                DEVICE_CLASS_IDS.put(pair.deviceClass(), DEVICE_CLASS_IDS.size());
+            }
+        }
+        this.conversions = new Unit[DEVICE_CLASS_IDS.size()][];
+        for (Map.Entry<DeviceClassUnitPair, Unit> entry : conversions.entrySet()) {
+            int id = DEVICE_CLASS_IDS.get(entry.getKey().deviceClass());
+            if (this.conversions[id] == null) {
+                this.conversions[id] = new Unit[UnitIndex.unitCount()];
+            }
+            this.conversions[id][UnitIndex.indexOf(entry.getKey().unit())] = entry.getValue();
+        }
     }
 
     /**
@@ -37,6 +59,18 @@ public final class UnitSystem {
         return US_CUSTOMARY;
     }
 
+    /**
+     * Get the ID of a device class, for the ID overloads of {@link #convert},
+     * {@link #convertInto} and {@link #preferredUnit}. IDs are shared by all unit systems.
+     *
+     * @param deviceClass the device class (e.g., "pressure", "temperature")
+     * @return the ID, or -1 if no unit system converts the device class
+     */
+    public static int deviceClassId(String deviceClass) {
+        Integer id = DEVICE_CLASS_IDS.get(deviceClass);
+        return id == null ? -1 : id;
+    }
+
     /**
      * Convert a value to this unit system's preferred unit.
      *
@@ -46,7 +80,19 @@ public final class UnitSystem {
      * @return a Quantity in the preferred unit for this system
      */
     public Quantity convert(Number value, String deviceClass, Unit original) {
-        Unit targetUnit = conversions.get(new DeviceClassUnitPair(deviceClass, original));
+        return convert(value, deviceClassId(deviceClass), original);
+    }
+
+    /**
+     * Convert a value to this unit system's preferred unit.
+     *
+     * @param value the value to convert
+     * @param deviceClassId the device class ID from {@link #deviceClassId}
+     * @param original the original unit
+     * @return a Quantity in the preferred unit for this system
+     */
+    public Quantity convert(Number value, int deviceClassId, Unit original) {
+        Unit targetUnit = targetUnit(deviceClassId, original);
         if (targetUnit == null) {
             // No conversion specified, keep original
             return new Quantity(value.doubleValue(), original);
@@ -56,6 +102,64 @@ public final class UnitSystem {
         return new Quantity(convertedValue, targetUnit);
     }
 
+    /**
+     * Convert a value to this unit system's preferred unit, without creating a Quantity.
+     * The value is in {@link #preferredUnit} of the same arguments.
+     *
+     * @param value the value to convert
+     * @param deviceClass the device class (e.g., "pressure", "temperature")
+     * @param original the original unit
+     * @return the value in the preferred unit, or unchanged if there is no conversion
+     */
+    public double convertInto(double value, String deviceClass, Unit original) {
+        return convertInto(value, deviceClassId(deviceClass), original);
+    }
+
+    /**
+     * Convert a value to this unit system's preferred unit, without creating a Quantity.
+     * The value is in {@link #preferredUnit} of the same arguments.
+     *
+     * @param value the value to convert
+     * @param deviceClassId the device class ID from {@link #deviceClassId}
+     * @param original the original unit
+     * @return the value in the preferred unit, or unchanged if there is no conversion
+     */
+    public double convertInto(double value, int deviceClassId, Unit original) {
+        Unit targetUnit = targetUnit(deviceClassId, original);
+        return targetUnit == null ? value : UnitConverter.convert(value, original, targetUnit);
+    }
+
+    /**
+     * Get the unit this system converts values of a device class to.
+     *
+     * @param deviceClass the device class (e.g., "pressure", "temperature")
+     * @param original the original unit
+     * @return the preferred unit, or {@code original} if there is no conversion
+     */
+    public Unit preferredUnit(String deviceClass, Unit original) {
+        return preferredUnit(deviceClassId(deviceClass), original);
+    }
+
+    /**
+     * Get the unit this system converts values of a device class to.
+     *
+     * @param deviceClassId the device class ID from {@link #deviceClassId}
+     * @param original the original unit
+     * @return the preferred unit, or {@code original} if there is no conversion
+     */
+    public Unit preferredUnit(int deviceClassId, Unit original) {
+        Unit targetUnit = targetUnit(deviceClassId, original);
+        return targetUnit == null ? original : targetUnit;
+    }
+
+    private Unit targetUnit(int deviceClassId, Unit original) {
+        if (deviceClassId < 0 || deviceClassId >= conversions.length || original == null) {
+            return null;
+        }
+        Unit[] targets = conversions[deviceClassId];
+        return targets == null ? null : targets[UnitIndex.indexOf(original)];
+    }
+
     /**
      * Get the default units for this system as a map.
      *
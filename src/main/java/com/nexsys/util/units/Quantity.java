@@ -3,124 +3,225 @@ package com.nexsys.util.units;
 
 import com.nexsys.util.UnitConverter;
 
+import java.io.IOException;
+
 /**
  * Represents a value with its associated unit.
+ *
+ * Quantities of the same unit family can be added, subtracted and compared; the other
+ * operand is converted to this quantity's unit. Temperature scales have different zero
+ * points, so there is no single meaning for {@code 20 °C + 50 °F}: temperatures are only
+ * added and subtracted in the same unit. For hot paths such as threshold
+ * checks, {@link #valueIn}, {@link #compareTo(double, Unit)} and {@link #min}/{@link #max}
+ * return primitives or an existing quantity and never allocate.
+ *
+ * {@link #toString} formats exactly like {@code String.format} did, from a precomputed
+ * symbol table and a fast fixed-precision formatter; {@link #appendTo(StringBuilder)}
+ * appends the same text to a caller's builder.
+ *
+ * The natural order is by magnitude across units, so it is inconsistent with
+ * {@link #equals}: {@code 1 km} and {@code 1000 m} compare as equal but are not equal.
  */
-public record Quantity(double value, Unit unit) {
+public record Quantity(double value, Unit unit) implements Comparable<Quantity> {
 
     /**
      * Convert this quantity to a different unit.
      *
      * @param target the target unit
-     * @return a new Quantity in the target unit
+     * @return a Quantity in the target unit, or this quantity if it is already in that unit
      * @throws IllegalArgumentException if units are incompatible
      */
     public Quantity convertTo(Unit target) {
-        if (target.getClass() != unit.getClass()) {
-            throw new IllegalArgumentException("Cannot convert " + unit.getClass().getSimpleName()
-                    + " to " + target.getClass().getSimpleName());
+        requireCompatible(target);
+        if (target == unit) {
+            return this;
         }
 
         double convertedValue = UnitConverter.convert(value, unit, target);
         return new Quantity(convertedValue, target);
     }
 
+    /**
+     * Get the value of this quantity in another unit, without creating a Quantity.
+     *
+     * @param target the target unit
+     * @return the value in the target unit
+     * @throws IllegalArgumentException if units are incompatible
+     */
+    public double valueIn(Unit target) {
+        requireCompatible(target);
+        return UnitConverter.convert(value, unit, target);
+    }
+
+    /**
+     * Check if this quantity can be converted to a unit.
+     *
+     * @param target the unit
+     * @return true if the unit is of the same family
+     */
+    public boolean isCompatibleWith(Unit target) {
+        return target.getClass() == unit.getClass();
+    }
+
+    /**
+     * Add another quantity of the same family.
+     *
+     * @param other the quantity to add
+     * @return the sum, in this quantity's unit
+     * @throws IllegalArgumentException if units are incompatible, or are different
+     *         temperature units
+     */
+    public Quantity plus(Quantity other) {
+        return new Quantity(value + other.operandIn(unit), unit);
+    }
+
+    /**
+     * Subtract another quantity of the same family.
+     *
+     * @param other the quantity to subtract
+     * @return the difference, in this quantity's unit
+     * @throws IllegalArgumentException if units are incompatible, or are different
+     *         temperature units
+     */
+    public Quantity minus(Quantity other) {
+        return new Quantity(value - other.operandIn(unit), unit);
+    }
+
+    /**
+     * Multiply this quantity by a factor.
+     *
+     * @param factor the factor
+     * @return the scaled quantity, in this quantity's unit
+     */
+    public Quantity multipliedBy(double factor) {
+        return new Quantity(value * factor, unit);
+    }
+
+    /**
+     * Compare this quantity with another of the same family, by magnitude.
+     *
+     * @param other the quantity to compare with
+     * @return a negative number, zero or a positive number as this quantity is smaller,
+     *         equal or larger, as {@link Double#compare}
+     * @throws IllegalArgumentException if units are incompatible
+     */
+    @Override
+    public int compareTo(Quantity other) {
+        return Double.compare(value, other.valueIn(unit));
+    }
+
+    /**
+     * Compare this quantity with a value in a unit of the same family, such as a threshold.
+     * The comparison is done in {@code otherUnit}.
+     *
+     * @param otherValue the value to compare with
+     * @param otherUnit the unit of {@code otherValue}
+     * @return a negative number, zero or a positive number as this quantity is smaller,
+     *         equal or larger, as {@link Double#compare}
+     * @throws IllegalArgumentException if units are incompatible
+     */
+    public int compareTo(double otherValue, Unit otherUnit) {
+        return Double.compare(valueIn(otherUnit), otherValue);
+    }
+
+    /**
+     * Check if this quantity is larger than a value in a unit of the same family.
+     *
+     * @param threshold the threshold
+     * @param thresholdUnit the unit of the threshold
+     * @return true if this quantity is larger
+     * @throws IllegalArgumentException if units are incompatible
+     */
+    public boolean isGreaterThan(double threshold, Unit thresholdUnit) {
+        return valueIn(thresholdUnit) > threshold;
+    }
+
+    /**
+     * Check if this quantity is smaller than a value in a unit of the same family.
+     *
+     * @param threshold the threshold
+     * @param thresholdUnit the unit of the threshold
+     * @return true if this quantity is smaller
+     * @throws IllegalArgumentException if units are incompatible
+     */
+    public boolean isLessThan(double threshold, Unit thresholdUnit) {
+        return valueIn(thresholdUnit) < threshold;
+    }
+
+    /**
+     * Get the smaller of two quantities of the same family.
+     *
+     * @param a a quantity
+     * @param b another quantity
+     * @return {@code a} or {@code b}, {@code a} if they are equal in magnitude
+     * @throws IllegalArgumentException if units are incompatible
+     */
+    public static Quantity min(Quantity a, Quantity b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    /**
+     * Get the larger of two quantities of the same family.
+     *
+     * @param a a quantity
+     * @param b another quantity
+     * @return {@code a} or {@code b}, {@code a} if they are equal in magnitude
+     * @throws IllegalArgumentException if units are incompatible
+     */
+    public static Quantity max(Quantity a, Quantity b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    /**
+     * Get the value of an operand of {@link #plus} or {@link #minus} in the target unit.
+     */
+    private double operandIn(Unit target) {
+        if (unit instanceof TemperatureUnit && target != unit) {
+            throw new IllegalArgumentException("Cannot add or subtract " + target + " and " + unit
+                    + " temperatures, convert one of them first");
+        }
+        return valueIn(target);
+    }
+
+    private void requireCompatible(Unit target) {
+        if (!isCompatibleWith(target)) {
+            throw new IllegalArgumentException("Cannot convert " + unit.getClass().getSimpleName()
+                    + " to " + target.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Append this quantity as {@link #toString} formats it, without creating a string.
+     *
+     * @param out the builder to append to
+     * @return {@code out}
+     */
+    public StringBuilder appendTo(StringBuilder out) {
+        return QuantityFormat.append(out, value, unit);
+    }
+
+    /**
+     * Append this quantity as {@link #toString} formats it.
+     *
+     * @param out the destination
+     * @return {@code out}
+     * @throws IOException if appending fails
+     */
+    public Appendable appendTo(Appendable out) throws IOException {
+        if (out instanceof StringBuilder builder) {
+            appendTo(builder);
+        } else {
+            out.append(toString());
+        }
+        return out;
+    }
+
+    /**
+     * Format this quantity with the unit's symbol, such as {@code 21.5 °C}, {@code 3 Bft},
+     * {@code 45.0%} or {@code 12.50 km/h}.
+     */
     @Override
     public String toString() {
-        return switch (unit) {
-            case TemperatureUnit t -> String.format("%.1f %s", value, getTemperatureSymbol(t));
-            case SpeedUnit s when s == SpeedUnit.BEAUFORT -> String.format("%.0f Bft", value);
-            case RatioUnit r when r == RatioUnit.PERCENT -> String.format("%.1f%%", value);
-            case UnitlessUnit u when u == UnitlessUnit.PERCENT -> String.format("%.1f%%", value);
-            default -> String.format("%.2f %s", value, getUnitSymbol(unit));
-        };
-    }
-
-    private String getTemperatureSymbol(TemperatureUnit unit) {
-        return switch (unit) {
-            case CELSIUS -> "°C";
-            case FAHRENHEIT -> "°F";
-            case KELVIN -> "K";
-        };
-    }
-
-    private String getUnitSymbol(Unit unit) {
-        return switch (unit) {
-            case LengthUnit l -> switch (l) {
-                case MILLIMETER -> "mm";
-                case CENTIMETER -> "cm";
-                case METRE -> "m";
-                case KILOMETRE -> "km";
-                case INCH -> "in";
-                case FOOT -> "ft";
-                case YARD -> "yd";
-                case MILE -> "mi";
-                case NAUTICAL_MILE -> "nmi";
-            };
-            case AreaUnit a -> switch (a) {
-                case SQUARE_MILLIMETER -> "mm²";
-                case SQUARE_CENTIMETER -> "cm²";
-                case SQUARE_METRE -> "m²";
-                case SQUARE_KILOMETRE -> "km²";
-                case SQUARE_INCH -> "in²";
-                case SQUARE_FOOT -> "ft²";
-                case SQUARE_YARD -> "yd²";
-                case SQUARE_MILE -> "mi²";
-                case ACRE -> "acre";
-                case HECTARE -> "ha";
-            };
-            case MassUnit m -> switch (m) {
-                case MICROGRAM -> "μg";
-                case MILLIGRAM -> "mg";
-                case GRAM -> "g";
-                case KILOGRAM -> "kg";
-                case OUNCE -> "oz";
-                case POUND -> "lb";
-                case STONE -> "st";
-            };
-            case VolumeUnit v -> switch (v) {
-                case MILLILITER -> "mL";
-                case LITER -> "L";
-                case CUBIC_METRE -> "m³";
-                case CUBIC_FOOT -> "ft³";
-                case CENTUM_CUBIC_FOOT -> "ccf";
-                case GALLON -> "gal";
-                case FLUID_OUNCE -> "fl oz";
-            };
-            case PressureUnit p -> switch (p) {
-                case PASCAL -> "Pa";
-                case HECTOPASCAL -> "hPa";
-                case KILOPASCAL -> "kPa";
-                case BAR -> "bar";
-                case CENTIBAR -> "cbar";
-                case MILLIBAR -> "mbar";
-                case INCH_HG -> "inHg";
-                case PSI -> "psi";
-                case MILLIMETER_HG -> "mmHg";
-            };
-            case PowerUnit p -> switch (p) {
-                case MILLIWATT -> "mW";
-                case WATT -> "W";
-                case KILOWATT -> "kW";
-                case MEGAWATT -> "MW";
-                case GIGAWATT -> "GW";
-                case TERAWATT -> "TW";
-            };
-            case SpeedUnit s -> switch (s) {
-                case METRE_PER_SECOND -> "m/s";
-                case MILLIMETER_PER_SECOND -> "mm/s";
-                case INCH_PER_SECOND -> "in/s";
-                case FOOT_PER_SECOND -> "ft/s";
-                case KILOMETRE_PER_HOUR -> "km/h";
-                case MILE_PER_HOUR -> "mph";
-                case KNOT -> "kn";
-                case BEAUFORT -> "Bft";
-                case INCH_PER_DAY -> "in/d";
-                case INCH_PER_HOUR -> "in/h";
-                case MILLIMETER_PER_DAY -> "mm/d";
-                case MILLIMETER_PER_HOUR -> "mm/h";
-            };
-            default -> unit.toString();
-        };
+        return QuantityFormat.append(new StringBuilder(16), value, unit).toString();
     }
 }
\ No newline at end of file
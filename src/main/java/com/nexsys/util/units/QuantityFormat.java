@@ -0,0 +1,203 @@
+// src/main/java/com/nexsys/util/units/QuantityFormat.java
+package com.nexsys.util.units;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Formatting behind {@link Quantity#toString}, producing exactly what
+ * {@code String.format("%.Nf", value)} plus the unit suffix produces, without its parsing and
+ * allocation.
+ *
+ * Every unit's precision and suffix are looked up in a table built once per unit family.
+ * The digits are computed from the value scaled by 10^N and rounded half up. A value whose
+ * scaled fraction is within a few ulps of one half, where that rounding could differ from
+ * {@link java.util.Formatter}'s, is formatted by {@code String.format}, as are NaN,
+ * infinities, very large values and locales without ASCII digits.
+ */
+final class QuantityFormat {
+    private static final double[] POWERS_OF_TEN = {1, 10, 100};
+    private static final long[] LONG_POWERS_OF_TEN = {1, 10, 100};
+    private static final String[] PATTERNS = {"%.0f", "%.1f", "%.2f"};
+    private static final double MAX_SCALED = 1e15;
+
+    private static final ClassValue<Style[]> STYLES = new ClassValue<>() {
+        @Override
+        protected Style[] computeValue(Class<?> type) {
+            Unit[] units = (Unit[]) type.getEnumConstants();
+            Style[] styles = new Style[units.length];
+            for (int i = 0; i < units.length; i++) {
+                styles[i] = styleOf(units[i]);
+            }
+            return styles;
+        }
+    };
+
+    private static volatile Symbols symbols = Symbols.of(Locale.getDefault(Locale.Category.FORMAT));
+
+    private QuantityFormat() {} // Prevent instantiation
+
+    /**
+     * The precision and the text after the number for one unit.
+     */
+    record Style(int precision, String suffix) {}
+
+    /**
+     * Decimal symbols of the format locale that the fast path needs.
+     */
+    private record Symbols(Locale locale, char decimalSeparator, boolean asciiDigits) {
+        static Symbols of(Locale locale) {
+            DecimalFormatSymbols dfs = DecimalFormatSymbols.getInstance(locale);
+            return new Symbols(locale, dfs.getDecimalSeparator(), dfs.getZeroDigit() == '0');
+        }
+    }
+
+    static Style style(Unit unit) {
+        return STYLES.get(unit.getClass())[((Enum<?>) unit).ordinal()];
+    }
+
+    /**
+     * Append a quantity as {@link Quantity#toString} formats it.
+     */
+    static StringBuilder append(StringBuilder out, double value, Unit unit) {
+        Style style = style(unit);
+        appendFixed(out, value, style.precision());
+        return out.append(style.suffix());
+    }
+
+    /**
+     * Append {@code value} as {@code String.format("%.<precision>f", value)} would, for a
+     * precision between 0 and 2.
+     */
+    static void appendFixed(StringBuilder out, double value, int precision) {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        Symbols current = symbols;
+        if (current.locale() != locale) {
+            current = Symbols.of(locale);
+            symbols = current;
+        }
+
+        double scaled = Math.abs(value) * POWERS_OF_TEN[precision];
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        if (!(scaled < MAX_SCALED) || !current.asciiDigits()
+                || Math.abs(fraction - 0.5) <= 4 * Math.ulp(scaled)) {
+            out.append(String.format(locale, PATTERNS[precision], value));
+            return;
+        }
+
+        long digits = (long) floor + (fraction > 0.5 ? 1 : 0);
+        if (Double.doubleToRawLongBits(value) < 0) {
+            // Formatter keeps the sign of values that round to zero, and of -0.0
+            out.append('-');
+        }
+        long unit = LONG_POWERS_OF_TEN[precision];
+        out.append(digits / unit);
+        if (precision > 0) {
+            out.append(current.decimalSeparator());
+            long fractionDigits = digits % unit;
+            for (long pad = unit / 10; pad > 1 && fractionDigits < pad; pad /= 10) {
+                out.append('0');
+            }
+            out.append(fractionDigits);
+        }
+    }
+
+    private static Style styleOf(Unit unit) {
+        return switch (unit) {
+            case TemperatureUnit t -> new Style(1, " " + getTemperatureSymbol(t));
+            case SpeedUnit s when s == SpeedUnit.BEAUFORT -> new Style(0, " Bft");
+            case RatioUnit r when r == RatioUnit.PERCENT -> new Style(1, "%");
+            case UnitlessUnit u when u == UnitlessUnit.PERCENT -> new Style(1, "%");
+            default -> new Style(2, " " + getUnitSymbol(unit));
+        };
+    }
+
+    private static String getTemperatureSymbol(TemperatureUnit unit) {
+        return switch (unit) {
+            case CELSIUS -> "°C";
+            case FAHRENHEIT -> "°F";
+            case KELVIN -> "K";
+        };
+    }
+
+    private static String getUnitSymbol(Unit unit) {
+        return switch (unit) {
+            case LengthUnit l -> switch (l) {
+                case MILLIMETER -> "mm";
+                case CENTIMETER -> "cm";
+                case METRE -> "m";
+                case KILOMETRE -> "km";
+                case INCH -> "in";
+                case FOOT -> "ft";
+                case YARD -> "yd";
+                case MILE -> "mi";
+                case NAUTICAL_MILE -> "nmi";
+            };
+            case AreaUnit a -> switch (a) {
+                case SQUARE_MILLIMETER -> "mm²";
+                case SQUARE_CENTIMETER -> "cm²";
+                case SQUARE_METRE -> "m²";
+                case SQUARE_KILOMETRE -> "km²";
+                case SQUARE_INCH -> "in²";
+                case SQUARE_FOOT -> "ft²";
+                case SQUARE_YARD -> "yd²";
+                case SQUARE_MILE -> "mi²";
+                case ACRE -> "acre";
+                case HECTARE -> "ha";
+            };
+            case MassUnit m -> switch (m) {
+                case MICROGRAM -> "μg";
+                case MILLIGRAM -> "mg";
+                case GRAM -> "g";
+                case KILOGRAM -> "kg";
+                case OUNCE -> "oz";
+                case POUND -> "lb";
+                case STONE -> "st";
+            };
+            case VolumeUnit v -> switch (v) {
+                case MILLILITER -> "mL";
+                case LITER -> "L";
+                case CUBIC_METRE -> "m³";
+                case CUBIC_FOOT -> "ft³";
+                case CENTUM_CUBIC_FOOT -> "ccf";
+                case GALLON -> "gal";
+                case FLUID_OUNCE -> "fl oz";
+            };
+            case PressureUnit p -> switch (p) {
+                case PASCAL -> "Pa";
+                case HECTOPASCAL -> "hPa";
+                case KILOPASCAL -> "kPa";
+                case BAR -> "bar";
+                case CENTIBAR -> "cbar";
+                case MILLIBAR -> "mbar";
+                case INCH_HG -> "inHg";
+                case PSI -> "psi";
+                case MILLIMETER_HG -> "mmHg";
+            };
+            case PowerUnit p -> switch (p) {
+                case MILLIWATT -> "mW";
+                case WATT -> "W";
+                case KILOWATT -> "kW";
+                case MEGAWATT -> "MW";
+                case GIGAWATT -> "GW";
+                case TERAWATT -> "TW";
+            };
+            case SpeedUnit s -> switch (s) {
+                case METRE_PER_SECOND -> "m/s";
+                case MILLIMETER_PER_SECOND -> "mm/s";
+                case INCH_PER_SECOND -> "in/s";
+                case FOOT_PER_SECOND -> "ft/s";
+                case KILOMETRE_PER_HOUR -> "km/h";
+                case MILE_PER_HOUR -> "mph";
+                case KNOT -> "kn";
+                case BEAUFORT -> "Bft";
+                case INCH_PER_DAY -> "in/d";
+                case INCH_PER_HOUR -> "in/h";
+                case MILLIMETER_PER_DAY -> "mm/d";
+                case MILLIMETER_PER_HOUR -> "mm/h";
+            };
+            default -> unit.toString();
+        };
+    }
+}
\ No newline at end of file
@@ -6,6 +6,7 @@ import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 import static org.assertj.core.api.Assertions.*;
 
 class AsyncUtilsTest {
@@ -38,6 +39,194 @@ class AsyncUtilsTest {
         assertThat(maxConcurrent.get()).isLessThanOrEqualTo(3);
     }
 
+    @Test
+    void testGatherWithLimitKeepsTaskOrder() throws Exception {
+        List<Supplier<CompletableFuture<Integer>>> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final int taskId = i;
+            tasks.add(() -> CompletableFuture.supplyAsync(() -> {
+                try {
+                    Thread.sleep((5 - taskId) * 10L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return taskId;
+            }));
+        }
+
+        List<Integer> results = AsyncUtils.gatherWithLimit(5, tasks).get(2, TimeUnit.SECONDS);
+
+        assertThat(results).containsExactly(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    void testGatherWithLimitFailFast() throws Exception {
+        AtomicInteger cancelled = new AtomicInteger(0);
+        AtomicInteger started = new AtomicInteger(0);
+
+        List<Supplier<CompletableFuture<Integer>>> tasks = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            tasks.add(() -> {
+                started.incrementAndGet();
+                CompletableFuture<Integer> pending = new CompletableFuture<>();
+                pending.whenComplete((result, error) -> {
+                    if (pending.isCancelled()) {
+                        cancelled.incrementAndGet();
+                    }
+                });
+                return pending;
+            });
+        }
+        tasks.add(() -> {
+            started.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException("boom"));
+        });
+        for (int i = 0; i < 100; i++) {
+            tasks.add(() -> {
+                started.incrementAndGet();
+                return CompletableFuture.completedFuture(0);
+            });
+        }
+
+        CompletableFuture<List<Integer>> result = AsyncUtils.gatherWithLimit(3, tasks);
+
+        assertThatThrownBy(() -> result.get(2, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        Thread.sleep(50);
+        assertThat(cancelled.get()).isEqualTo(2);
+        assertThat(started.get()).isEqualTo(3);
+    }
+
+    @Test
+    void testGatherWithLimitCancellation() throws Exception {
+        CountDownLatch cancelled = new CountDownLatch(2);
+
+        List<Supplier<CompletableFuture<Integer>>> tasks = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            tasks.add(() -> {
+                CompletableFuture<Integer> pending = new CompletableFuture<>();
+                pending.whenComplete((result, error) -> {
+                    if (pending.isCancelled()) {
+                        cancelled.countDown();
+                    }
+                });
+                return pending;
+            });
+        }
+
+        CompletableFuture<List<Integer>> result = AsyncUtils.gatherWithLimit(2, tasks);
+        Thread.sleep(50);
+        result.cancel(true);
+
+        assertThat(cancelled.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testGatherWithLimitFailsOnBrokenTaskList() {
+        assertThatThrownBy(() -> AsyncUtils.gatherWithLimit(2, null))
+                .isInstanceOf(NullPointerException.class);
+
+        List<Supplier<CompletableFuture<Integer>>> tasks = new AbstractList<>() {
+            @Override
+            public Supplier<CompletableFuture<Integer>> get(int index) {
+                throw new IllegalStateException("broken");
+            }
+
+            @Override
+            public int size() {
+                return 2;
+            }
+        };
+        CompletableFuture<List<Integer>> result = AsyncUtils.gatherWithLimit(2, tasks);
+
+        assertThatThrownBy(() -> result.get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testMapWithLimitOrdered() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger(0);
+        AtomicInteger maxInFlight = new AtomicInteger(0);
+        List<Integer> results = new ArrayList<>();
+
+        AsyncUtils.mapWithLimit(4, IntStream.range(0, 200).boxed(), i -> AsyncUtils.supplyEager(() -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(i % 3);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            return i * 2;
+        }, null), true, results::add).get(5, TimeUnit.SECONDS);
+
+        assertThat(results).hasSize(200).isSorted();
+        assertThat(results.get(199)).isEqualTo(398);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void testMapWithLimitUnorderedLargeInput() throws Exception {
+        AtomicInteger count = new AtomicInteger(0);
+
+        AsyncUtils.mapWithLimit(16, IntStream.range(0, 50_000).iterator(),
+                i -> CompletableFuture.completedFuture(i), false, v -> count.incrementAndGet()).get(10, TimeUnit.SECONDS);
+
+        assertThat(count.get()).isEqualTo(50_000);
+    }
+
+    @Test
+    void testMapWithLimitFailure() {
+        CompletableFuture<Void> result = AsyncUtils.mapWithLimit(4, IntStream.range(0, 1_000).iterator(),
+                i -> i == 500
+                        ? CompletableFuture.<Integer>failedFuture(new IllegalStateException("boom"))
+                        : CompletableFuture.completedFuture(i),
+                true, v -> {});
+
+        assertThatThrownBy(() -> result.get(2, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testPublishWithLimit() throws Exception {
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        Flow.Publisher<Integer> publisher = AsyncUtils.publishWithLimit(4, IntStream.range(0, 1_000).iterator(),
+                i -> CompletableFuture.completedFuture(i), true);
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(Integer item) {
+                received.add(item);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+        });
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).hasSize(1_000).isSorted();
+    }
+
     @Test
     void testSupplyEager() throws Exception {
         CountDownLatch started = new CountDownLatch(1);
@@ -0,0 +1,258 @@
+// src/test/java/com/nexsys/util/BoundedConcurrentMapTest.java
+package com.nexsys.util;
+
+import com.nexsys.util.BoundedConcurrentMap.EvictionPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BoundedConcurrentMapTest {
+
+    private static BoundedConcurrentMap<String, Integer> sized(EvictionPolicy policy, int maximumSize) {
+        return BoundedConcurrentMap.<String, Integer>builder()
+                .eviction(policy)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @Test
+    void testFifoEviction() {
+        BoundedConcurrentMap<String, Integer> map = sized(EvictionPolicy.FIFO, 3);
+
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+        map.get("a");
+        map.put("d", 4);
+
+        assertThat(map).hasSize(3);
+        assertThat(map).doesNotContainKey("a");
+        assertThat(map).containsKeys("b", "c", "d");
+    }
+
+    @Test
+    void testLruEviction() {
+        BoundedConcurrentMap<String, Integer> map = sized(EvictionPolicy.LRU, 3);
+
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+        map.get("a");
+        map.put("d", 4);
+
+        assertThat(map).hasSize(3);
+        assertThat(map).doesNotContainKey("b");
+        assertThat(map).containsKeys("a", "c", "d");
+    }
+
+    @Test
+    void testTinyLfuStaysBounded() {
+        BoundedConcurrentMap<String, Integer> map = sized(EvictionPolicy.TINY_LFU, 10);
+
+        for (int i = 0; i < 100; i++) {
+            map.put("key" + i, i);
+        }
+        map.cleanUp();
+
+        assertThat(map.size()).isLessThanOrEqualTo(10);
+        assertThat(map.evictionPolicy()).isEqualTo(EvictionPolicy.TINY_LFU);
+    }
+
+    @Test
+    void testWeightBound() {
+        BoundedConcurrentMap<String, String> map = BoundedConcurrentMap.<String, String>builder()
+                .eviction(EvictionPolicy.FIFO)
+                .maximumWeight(10, (key, value) -> value.length())
+                .build();
+
+        map.put("a", "12345");
+        map.put("b", "1234");
+        map.put("c", "12");
+
+        assertThat(map).doesNotContainKey("a");
+        assertThat(map).containsKeys("b", "c");
+    }
+
+    @Test
+    void testSizeBoundIsMapWide() {
+        BoundedConcurrentMap<String, Integer> map = sized(EvictionPolicy.FIFO, 1000);
+
+        for (int i = 0; i < 1000; i++) {
+            map.put("key" + i, i);
+        }
+        assertThat(map).hasSize(1000);
+        assertThat(map.stats().evictionCount()).isZero();
+
+        for (int i = 1000; i < 1100; i++) {
+            map.put("key" + i, i);
+        }
+        assertThat(map).hasSize(1000);
+        assertThat(map.stats().evictionCount()).isEqualTo(100);
+        for (int i = 1000; i < 1100; i++) {
+            assertThat(map).containsKey("key" + i);
+        }
+    }
+
+    @Test
+    void testLruOrderIsMapWide() {
+        BoundedConcurrentMap<String, Integer> map = sized(EvictionPolicy.LRU, 1000);
+
+        for (int i = 0; i < 1000; i++) {
+            map.put("key" + i, i);
+        }
+        for (int i = 0; i < 100; i++) {
+            map.get("key" + i);
+        }
+        for (int i = 1000; i < 1100; i++) {
+            map.put("key" + i, i);
+        }
+
+        assertThat(map).hasSize(1000);
+        for (int i = 0; i < 100; i++) {
+            assertThat(map).containsKey("key" + i);
+        }
+        for (int i = 1000; i < 1100; i++) {
+            assertThat(map).containsKey("key" + i);
+        }
+    }
+
+    @Test
+    void testHeavyEntryEvictsOthers() {
+        BoundedConcurrentMap<String, String> map = BoundedConcurrentMap.<String, String>builder()
+                .eviction(EvictionPolicy.LRU)
+                .maximumWeight(1000, (key, value) -> value.length())
+                .build();
+
+        for (int i = 0; i < 100; i++) {
+            map.put("small" + i, "1234");
+        }
+        map.put("heavy", "x".repeat(900));
+
+        assertThat(map).containsKey("heavy");
+        assertThat(map.values().stream().mapToInt(String::length).sum()).isLessThanOrEqualTo(1000);
+        assertThat(map.stats().evictionCount()).isEqualTo(75);
+    }
+
+    @Test
+    void testEntryHeavierThanMaximumIsNotKept() {
+        BoundedConcurrentMap<String, String> map = BoundedConcurrentMap.<String, String>builder()
+                .eviction(EvictionPolicy.FIFO)
+                .maximumWeight(1000, (key, value) -> value.length())
+                .build();
+        map.put("a", "1234");
+        map.put("b", "1234");
+
+        map.put("huge", "x".repeat(1001));
+        map.put("b", "y".repeat(1001));
+
+        assertThat(map).containsOnly(entry("a", "1234"));
+        assertThat(map.stats().evictionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testExpireAfterWrite() throws InterruptedException {
+        BoundedConcurrentMap<String, Integer> map = BoundedConcurrentMap.<String, Integer>builder()
+                .maximumSize(10)
+                .expireAfterWrite(Duration.ofMillis(50))
+                .build();
+
+        map.put("a", 1);
+        assertThat(map.get("a")).isEqualTo(1);
+
+        Thread.sleep(100);
+
+        assertThat(map.get("a")).isNull();
+        assertThat(map).isEmpty();
+    }
+
+    @Test
+    void testCleanUpDropsExpiredEntries() throws InterruptedException {
+        BoundedConcurrentMap<String, Integer> map = BoundedConcurrentMap.<String, Integer>builder()
+                .maximumSize(10)
+                .expireAfterAccess(Duration.ofMillis(50))
+                .build();
+
+        map.put("a", 1);
+        map.put("b", 2);
+        Thread.sleep(100);
+        map.cleanUp();
+
+        assertThat(map).isEmpty();
+        assertThat(map.stats().evictionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testStats() {
+        BoundedConcurrentMap<String, Integer> map = sized(EvictionPolicy.LRU, 1);
+
+        map.put("a", 1);
+        map.get("a");
+        map.get("missing");
+        map.put("b", 2);
+
+        BoundedConcurrentMap.Stats stats = map.stats();
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.evictionCount()).isEqualTo(1);
+        assertThat(stats.hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void testEntrySetWritesThrough() {
+        BoundedConcurrentMap<String, Integer> map = sized(EvictionPolicy.FIFO, 10);
+        map.put("a", 1);
+        map.put("b", 2);
+
+        for (Map.Entry<String, Integer> entry : map.entrySet()) {
+            entry.setValue(entry.getValue() * 10);
+        }
+        map.entrySet().removeIf(entry -> entry.getKey().equals("a"));
+
+        assertThat(map).containsOnly(entry("b", 20));
+    }
+
+    @Test
+    void testConcurrentAccessStaysBounded() throws InterruptedException {
+        BoundedConcurrentMap<Integer, Integer> map = BoundedConcurrentMap.<Integer, Integer>builder()
+                .eviction(EvictionPolicy.LRU)
+                .maximumSize(100)
+                .build();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < 8; t++) {
+                int offset = t;
+                executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        map.computeIfAbsent((i * 31 + offset) % 1000, key -> key);
+                        map.get(i % 500);
+                    }
+                });
+            }
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(map.size()).isLessThanOrEqualTo(100);
+        map.forEach((key, value) -> assertThat(value).isEqualTo(key));
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThatThrownBy(() -> BoundedConcurrentMap.builder().build())
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> BoundedConcurrentMap.builder().maximumSize(0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BoundedConcurrentMap.<String, String>builder()
+                .maximumSize(10)
+                .maximumWeight(10, (key, value) -> 1))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> sized(EvictionPolicy.FIFO, 10).put(null, 1))
+                .isInstanceOf(NullPointerException.class);
+    }
+}
\ No newline at end of file
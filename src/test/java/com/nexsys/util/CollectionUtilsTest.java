@@ -3,6 +3,9 @@ package com.nexsys.util;
 
 import org.junit.jupiter.api.Test;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import static org.assertj.core.api.Assertions.*;
 
 class CollectionUtilsTest {
@@ -49,6 +52,91 @@ class CollectionUtilsTest {
         assertThat(result).hasSize(3);
     }
 
+    @Test
+    void testChunksAreViews() {
+        List<Integer> list = new ArrayList<>(List.of(1, 2, 3, 4, 5));
+
+        List<List<Integer>> chunks = CollectionUtils.chunk(list, 2);
+        list.set(0, 10);
+
+        assertThat(chunks).hasSize(3);
+        assertThat(chunks.get(0)).containsExactly(10, 2);
+        assertThat(chunks.get(2)).containsExactly(5);
+        assertThatThrownBy(() -> chunks.get(0).set(0, 1))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testChunkedOrAllDoesNotCopyLists() {
+        List<Integer> list = new ArrayList<>(List.of(1, 2, 3, 4, 5));
+
+        List<Collection<Integer>> result = CollectionUtils.chunkedOrAll(list, 2);
+        list.set(4, 50);
+
+        assertThat(result).hasSize(3);
+        assertThat(result.get(2)).containsExactly(50);
+        assertThat(CollectionUtils.chunkedOrAll(new LinkedHashSet<>(list), 2).get(1)).containsExactly(3, 4);
+    }
+
+    @Test
+    void testChunkStreamInParallel() {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) {
+            list.add(i);
+        }
+
+        Spliterator<List<Integer>> spliterator = CollectionUtils.chunkSpliterator(list, 100);
+        assertThat(spliterator.estimateSize()).isEqualTo(100);
+        assertThat(spliterator.trySplit().estimateSize()).isEqualTo(50);
+
+        long sum = CollectionUtils.chunkStream(list, 100)
+                .parallel()
+                .mapToLong(chunk -> chunk.stream().mapToLong(Integer::longValue).sum())
+                .sum();
+        assertThat(sum).isEqualTo(50_005_000L);
+    }
+
+    @Test
+    void testProcessChunksInParallel() throws Exception {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < 1_005; i++) {
+            list.add(i);
+        }
+
+        List<Integer> sizes = CollectionUtils.processChunksInParallel(list, 100, 4, List::size)
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(sizes).hasSize(11);
+        assertThat(sizes.getFirst()).isEqualTo(100);
+        assertThat(sizes.getLast()).isEqualTo(5);
+    }
+
+    @Test
+    void testProcessChunksInParallelInLane() throws Exception {
+        List<Integer> list = List.of(1, 2, 3, 4, 5);
+
+        List<Integer> sums = CollectionUtils.processChunksInParallel(list, 2, 2, NexsysExecutor.Lane.CRITICAL,
+                chunk -> chunk.stream().mapToInt(Integer::intValue).sum()).get(10, TimeUnit.SECONDS);
+
+        assertThat(sums).containsExactly(3, 7, 5);
+    }
+
+    @Test
+    void testProcessChunksInParallelFailure() {
+        List<Integer> list = List.of(1, 2, 3, 4);
+
+        CompletableFuture<List<Integer>> result = CollectionUtils.processChunksInParallel(list, 1, 2, chunk -> {
+            if (chunk.getFirst() == 3) {
+                throw new IllegalStateException("boom");
+            }
+            return chunk.getFirst();
+        });
+
+        assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
     @Test
     void testDeepMerge() {
         Map<String, Object> target = new HashMap<>();
@@ -70,4 +158,75 @@ class CollectionUtilsTest {
         assertThat(merged.get("y")).isEqualTo(30); // Source wins
         assertThat(merged.get("z")).isEqualTo(40);
     }
+
+    @Test
+    void testDeepMergeSharesUntouchedSubtrees() {
+        Map<String, Object> untouched = new HashMap<>(Map.of("x", 1));
+        Map<String, Object> target = new HashMap<>();
+        target.put("untouched", untouched);
+        target.put("changed", new HashMap<>(Map.of("y", 1)));
+
+        Map<String, Object> source = new HashMap<>();
+        source.put("untouched", new HashMap<>(Map.of("x", 1)));
+        source.put("changed", new HashMap<>(Map.of("y", 2)));
+
+        CollectionUtils.MergeResult<String, Object> result = CollectionUtils.deepMerge(
+                target, source, (a, b) -> b, CollectionUtils.ListMergeStrategy.RESOLVE);
+
+        assertThat(result.merged().get("untouched")).isSameAs(untouched);
+        assertThat(result.merged().get("changed")).isEqualTo(Map.of("y", 2));
+        assertThat(target.get("changed")).isEqualTo(Map.of("y", 1));
+        assertThat(result.changedPaths()).containsExactly(List.of("changed", "y"));
+        assertThat(result.hasChanges()).isTrue();
+    }
+
+    @Test
+    void testDeepMergeListStrategies() {
+        Map<String, Object> target = Map.of("list", List.of(1, 2));
+        Map<String, Object> source = Map.of("list", List.of(2, 3));
+
+        assertThat(CollectionUtils.deepMerge(target, source, (a, b) -> a,
+                CollectionUtils.ListMergeStrategy.RESOLVE).merged().get("list")).isEqualTo(List.of(1, 2));
+        assertThat(CollectionUtils.deepMerge(target, source, (a, b) -> a,
+                CollectionUtils.ListMergeStrategy.REPLACE).merged().get("list")).isEqualTo(List.of(2, 3));
+        assertThat(CollectionUtils.deepMerge(target, source, (a, b) -> a,
+                CollectionUtils.ListMergeStrategy.APPEND).merged().get("list")).isEqualTo(List.of(1, 2, 2, 3));
+        assertThat(CollectionUtils.deepMerge(target, source, (a, b) -> a,
+                CollectionUtils.ListMergeStrategy.APPEND_DISTINCT).merged().get("list")).isEqualTo(List.of(1, 2, 3));
+    }
+
+    @Test
+    void testDeepMergeOfDeepTrees() {
+        Map<String, Object> target = new HashMap<>();
+        Map<String, Object> source = new HashMap<>();
+        Map<String, Object> targetLevel = target;
+        Map<String, Object> sourceLevel = source;
+        for (int i = 0; i < 50_000; i++) {
+            Map<String, Object> nextTarget = new HashMap<>();
+            Map<String, Object> nextSource = new HashMap<>();
+            targetLevel.put("child", nextTarget);
+            sourceLevel.put("child", nextSource);
+            targetLevel = nextTarget;
+            sourceLevel = nextSource;
+        }
+        sourceLevel.put("leaf", 1);
+
+        CollectionUtils.MergeResult<String, Object> result = CollectionUtils.deepMerge(
+                target, source, (a, b) -> b, CollectionUtils.ListMergeStrategy.RESOLVE);
+
+        assertThat(result.changedPaths()).hasSize(1);
+        assertThat(result.changedPaths().getFirst()).hasSize(50_001).endsWith("leaf");
+    }
+
+    @Test
+    void testDeepMergeDetectsCycles() {
+        Map<String, Object> target = new HashMap<>();
+        target.put("self", target);
+        Map<String, Object> source = new HashMap<>();
+        source.put("self", source);
+
+        assertThatThrownBy(() -> CollectionUtils.deepMerge(target, source, (a, b) -> b))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cyclic");
+    }
 }
\ No newline at end of file
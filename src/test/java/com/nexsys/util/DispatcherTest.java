@@ -0,0 +1,125 @@
+// src/test/java/com/nexsys/util/DispatcherTest.java
+package com.nexsys.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.*;
+import static org.assertj.core.api.Assertions.*;
+
+class DispatcherTest {
+
+    private Dispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new Dispatcher();
+    }
+
+    @Test
+    void testConnectAndSend() {
+        SignalType<String> signal = SignalType.of("entity_registry_updated");
+        List<String> received = new ArrayList<>();
+
+        dispatcher.connect(signal, received::add);
+        dispatcher.send(signal, "light.kitchen");
+        dispatcher.send(SignalType.of("other_signal"), "ignored");
+
+        assertThat(received).containsExactly("light.kitchen");
+    }
+
+    @Test
+    void testDisconnect() {
+        SignalType<String> signal = SignalType.of("entity_registry_updated");
+        List<String> received = new ArrayList<>();
+
+        Runnable disconnect = dispatcher.connect(signal, received::add);
+        disconnect.run();
+        dispatcher.send(signal, "light.kitchen");
+
+        assertThat(received).isEmpty();
+        assertThat(dispatcher.handlerCount(signal)).isZero();
+    }
+
+    @Test
+    void testFamilyHandlerReceivesFormattedSignals() {
+        List<String> received = new ArrayList<>();
+        SignalType<Integer> sent = SignalType.format("device_%s_updated", "abc");
+
+        // Resolved before the family handler connects, must be refreshed on connect
+        dispatcher.send(sent, 0);
+        Runnable disconnect = dispatcher.<Integer>connectFamily("device_%s_updated",
+                (signal, payload) -> received.add(signal + "=" + payload));
+
+        dispatcher.send(sent, 1);
+        dispatcher.send(SignalType.format("device_%s_updated", "def"), 2);
+        dispatcher.send(SignalType.of("device_abc_removed"), 3);
+
+        assertThat(received).containsExactly("device_abc_updated=1", "device_def_updated=2");
+
+        disconnect.run();
+        dispatcher.send(sent, 4);
+        assertThat(received).hasSize(2);
+    }
+
+    @Test
+    void testExactAndFamilyHandlers() {
+        List<String> received = new ArrayList<>();
+        SignalType<String> signal = SignalType.format("device_%s_updated", "abc");
+
+        dispatcher.connect(signal, payload -> received.add("exact"));
+        dispatcher.<String>connectFamily("device_%s_updated", (s, payload) -> received.add("family"));
+        dispatcher.send(signal, "state");
+
+        assertThat(received).containsExactly("exact", "family");
+        assertThat(dispatcher.handlerCount(signal)).isEqualTo(2);
+    }
+
+    @Test
+    void testSignalsWithoutHandlersAreNotCached() {
+        Runnable disconnectFamily = dispatcher.<Integer>connectFamily("device_%s_updated", (s, payload) -> {});
+        for (int i = 0; i < 1000; i++) {
+            dispatcher.send(SignalType.format("sensor_%s_updated", i), i);
+        }
+        assertThat(dispatcher.resolvedCount()).isZero();
+
+        SignalType<Integer> device = SignalType.format("device_%s_updated", "abc");
+        SignalType<Integer> exact = SignalType.of("exact_signal");
+        dispatcher.send(device, 1);
+        Runnable disconnectExact = dispatcher.connect(exact, payload -> {});
+        assertThat(dispatcher.resolvedCount()).isEqualTo(2);
+
+        disconnectFamily.run();
+        disconnectExact.run();
+        assertThat(dispatcher.resolvedCount()).isZero();
+        assertThat(dispatcher.handlerCount(device)).isZero();
+        assertThat(dispatcher.handlerCount(exact)).isZero();
+    }
+
+    @Test
+    void testFamilyMatchesLiteralTextInOrder() {
+        dispatcher.<Integer>connectFamily("zone_%s_sensor_%d_100%%", (s, payload) -> {});
+
+        assertThat(dispatcher.handlerCount(SignalType.of("zone_a_sensor_1_100%"))).isEqualTo(1);
+        assertThat(dispatcher.handlerCount(SignalType.of("zone__sensor__100%"))).isEqualTo(1);
+        assertThat(dispatcher.handlerCount(SignalType.of("zone_sensor_sensor_sensor_2_100%"))).isEqualTo(1);
+        assertThat(dispatcher.handlerCount(SignalType.of("zone_a_sensor_1_100"))).isZero();
+        assertThat(dispatcher.handlerCount(SignalType.of("zone_a_1_100%"))).isZero();
+        // The middle literal must not overlap the suffix
+        assertThat(dispatcher.handlerCount(SignalType.of("zone_sensor_100%"))).isZero();
+        assertThat(dispatcher.handlerCount(SignalType.of("x_zone_a_sensor_1_100%"))).isZero();
+    }
+
+    @Test
+    void testFailingHandlerDoesNotStopDispatch() {
+        SignalType<String> signal = SignalType.of("test");
+        List<String> received = new ArrayList<>();
+
+        dispatcher.connect(signal, payload -> {
+            throw new IllegalStateException("boom");
+        });
+        dispatcher.connect(signal, received::add);
+
+        assertThatCode(() -> dispatcher.send(signal, "value")).doesNotThrowAnyException();
+        assertThat(received).containsExactly("value");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+// src/test/java/com/nexsys/util/EventBusTest.java
+package com.nexsys.util;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import static org.assertj.core.api.Assertions.*;
+
+class EventBusTest {
+
+    private static final EventType<Map<String, Object>> STATE_CHANGED = EventType.of("state_changed");
+    private static final EventType<Map<String, Object>> CALL_SERVICE = EventType.of("call_service");
+
+    @Test
+    void testFireInvokesListenersInOrder() {
+        EventBus bus = new EventBus();
+        List<String> calls = new ArrayList<>();
+
+        bus.listen(STATE_CHANGED, (type, data) -> calls.add("first:" + data.get("entity_id")));
+        bus.listen(STATE_CHANGED, (type, data) -> calls.add("second:" + data.get("entity_id")));
+        bus.listen(CALL_SERVICE, (type, data) -> calls.add("other"));
+
+        bus.fire(STATE_CHANGED, Map.of("entity_id", "light.kitchen"));
+
+        assertThat(calls).containsExactly("first:light.kitchen", "second:light.kitchen");
+    }
+
+    @Test
+    void testRemoveListener() {
+        EventBus bus = new EventBus();
+        List<String> calls = new ArrayList<>();
+
+        Runnable remove = bus.listen(STATE_CHANGED, (type, data) -> calls.add("removed"));
+        bus.listen(STATE_CHANGED, (type, data) -> calls.add("kept"));
+        assertThat(bus.listenerCount(STATE_CHANGED)).isEqualTo(2);
+
+        remove.run();
+        bus.fire(STATE_CHANGED, Map.of());
+
+        assertThat(calls).containsExactly("kept");
+        assertThat(bus.listenerCount(STATE_CHANGED)).isEqualTo(1);
+    }
+
+    @Test
+    void testFailingListenerDoesNotStopDispatch() {
+        EventBus bus = new EventBus();
+        List<String> calls = new ArrayList<>();
+
+        bus.listen(STATE_CHANGED, (type, data) -> {
+            throw new IllegalStateException("boom");
+        });
+        bus.listen(STATE_CHANGED, (type, data) -> calls.add("called"));
+
+        assertThatCode(() -> bus.fire(STATE_CHANGED, Map.of())).doesNotThrowAnyException();
+        assertThat(calls).containsExactly("called");
+    }
+
+    @Test
+    void testFireAsync() throws Exception {
+        EventBus bus = new EventBus();
+        CountDownLatch latch = new CountDownLatch(1);
+        Thread caller = Thread.currentThread();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        bus.listen(STATE_CHANGED, (type, data) -> {
+            threads.add(Thread.currentThread());
+            latch.countDown();
+        });
+        bus.fireAsync(STATE_CHANGED, Map.of());
+
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(threads).doesNotContain(caller);
+    }
+
+    @Test
+    void testListenBatchedCoalescesPerKey() throws Exception {
+        EventBus bus = new EventBus();
+        Map<Object, List<Object>> batches = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(2);
+
+        bus.listenBatched(STATE_CHANGED, Duration.ofMillis(100), data -> data.get("entity_id"),
+                (type, events) -> {
+                    batches.put(events.getFirst().get("entity_id"),
+                            events.stream().map(e -> e.get("value")).toList());
+                    latch.countDown();
+                });
+
+        for (int i = 0; i < 5; i++) {
+            bus.fire(STATE_CHANGED, Map.of("entity_id", "sensor.power", "value", i));
+        }
+        bus.fire(STATE_CHANGED, Map.of("entity_id", "sensor.motion", "value", "on"));
+
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(batches.get("sensor.power")).containsExactly(0, 1, 2, 3, 4);
+        assertThat(batches.get("sensor.motion")).containsExactly("on");
+    }
+
+    @Test
+    void testListenLatestDeliversLastValue() throws Exception {
+        EventBus bus = new EventBus();
+        List<Object> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        bus.listenLatest(STATE_CHANGED, Duration.ofMillis(100), data -> data.get("entity_id"),
+                (type, data) -> {
+                    received.add(data.get("value"));
+                    latch.countDown();
+                });
+
+        for (int i = 0; i < 100; i++) {
+            bus.fire(STATE_CHANGED, Map.of("entity_id", "sensor.power", "value", i));
+        }
+
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(150);
+        assertThat(received).containsExactly(99);
+    }
+}
\ No newline at end of file
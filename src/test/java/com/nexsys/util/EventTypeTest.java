@@ -36,4 +36,13 @@ class EventTypeTest {
         assertEquals('h', event.charAt(0));
         assertEquals("assistant", event.subSequence(4, 13).toString());
     }
+
+    @Test
+    void testInterned() {
+        EventType<Map<String, Object>> event1 = EventType.of("event_sensor_123");
+        EventType<Map<String, String>> event2 = EventType.format("event_%s_%d", "sensor", 123);
+
+        assertSame(event1, event2);
+        assertEquals(event1.hashCode(), event2.hashCode());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,234 @@
+// src/test/java/com/nexsys/util/ExecutionLaneTest.java
+package com.nexsys.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.*;
+
+class ExecutionLaneTest {
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private ExecutionLane lane(int maxConcurrency, int queueCapacity, NexsysExecutor.BackpressurePolicy policy) {
+        return new ExecutionLane("test", new NexsysExecutor.LaneConfig(maxConcurrency, queueCapacity, policy), executor);
+    }
+
+    @Test
+    void testConcurrencyCapAndFifoOrder() throws Exception {
+        ExecutionLane lane = lane(1, 100, NexsysExecutor.BackpressurePolicy.REJECT);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(20);
+
+        for (int i = 0; i < 20; i++) {
+            int n = i;
+            lane.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                order.add(n);
+                running.decrementAndGet();
+                done.countDown();
+            }, () -> {});
+        }
+
+        assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(1);
+        assertThat(order).isSorted().hasSize(20);
+    }
+
+    @Test
+    void testReject() {
+        ExecutionLane lane = lane(1, 1, NexsysExecutor.BackpressurePolicy.REJECT);
+        CountDownLatch gate = new CountDownLatch(1);
+
+        lane.submit(() -> awaitQuietly(gate), () -> {});
+        lane.submit(() -> {}, () -> {});
+        assertThat(lane.queued()).isEqualTo(1);
+
+        assertThatThrownBy(() -> lane.submit(() -> {}, () -> {}))
+                .isInstanceOf(RejectedExecutionException.class);
+        gate.countDown();
+    }
+
+    @Test
+    void testDropOldest() throws Exception {
+        ExecutionLane lane = lane(1, 2, NexsysExecutor.BackpressurePolicy.DROP_OLDEST);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        List<String> ran = new CopyOnWriteArrayList<>();
+        List<String> dropped = new CopyOnWriteArrayList<>();
+
+        lane.submit(() -> awaitQuietly(gate), () -> {});
+        for (String task : List.of("a", "b", "c")) {
+            lane.submit(() -> {
+                ran.add(task);
+                done.countDown();
+            }, () -> dropped.add(task));
+        }
+        gate.countDown();
+
+        assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(dropped).containsExactly("a");
+        assertThat(ran).containsExactly("b", "c");
+    }
+
+    @Test
+    void testDropOldestKeepsUndroppableTasks() throws Exception {
+        ExecutionLane lane = lane(1, 2, NexsysExecutor.BackpressurePolicy.DROP_OLDEST);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        List<String> ran = new CopyOnWriteArrayList<>();
+        List<String> dropped = new CopyOnWriteArrayList<>();
+
+        lane.submit(() -> awaitQuietly(gate), () -> {});
+        for (String task : List.of("kept", "a", "second")) {
+            lane.submit(() -> {
+                ran.add(task);
+                done.countDown();
+            }, task.equals("a") ? () -> dropped.add(task) : null);
+        }
+        assertThat(dropped).containsExactly("a");
+
+        // Only undroppable tasks are queued: a droppable one is rejected, another undroppable one waits
+        assertThatThrownBy(() -> lane.submit(() -> {}, () -> {}))
+                .isInstanceOf(RejectedExecutionException.class);
+        Thread submitter = Thread.ofVirtual().start(() -> lane.submit(() -> {
+            ran.add("waiting");
+            done.countDown();
+        }, null));
+        submitter.join(100);
+        assertThat(submitter.isAlive()).isTrue();
+
+        gate.countDown();
+        assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(ran).containsExactly("kept", "second", "waiting");
+    }
+
+    @Test
+    void testBlockUntilSpace() throws Exception {
+        ExecutionLane lane = lane(1, 0, NexsysExecutor.BackpressurePolicy.BLOCK);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch ran = new CountDownLatch(1);
+
+        lane.submit(() -> awaitQuietly(gate), () -> {});
+        Thread submitter = Thread.ofVirtual().start(() -> lane.submit(ran::countDown, () -> {}));
+
+        assertThat(ran.await(100, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(submitter.isAlive()).isTrue();
+
+        gate.countDown();
+        assertThat(ran.await(1, TimeUnit.SECONDS)).isTrue();
+        submitter.join(1000);
+        assertThat(submitter.isAlive()).isFalse();
+    }
+
+    @Test
+    void testRaisingConcurrencyStartsQueuedTasks() throws Exception {
+        ExecutionLane lane = lane(1, 10, NexsysExecutor.BackpressurePolicy.REJECT);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch ran = new CountDownLatch(1);
+
+        lane.submit(() -> awaitQuietly(gate), () -> {});
+        lane.submit(ran::countDown, () -> {});
+        assertThat(ran.await(100, TimeUnit.MILLISECONDS)).isFalse();
+
+        lane.configure(new NexsysExecutor.LaneConfig(2, 10, NexsysExecutor.BackpressurePolicy.REJECT));
+        assertThat(ran.await(1, TimeUnit.SECONDS)).isTrue();
+        gate.countDown();
+    }
+
+    @Test
+    void testFailingTaskDoesNotStopWorker() throws Exception {
+        ExecutionLane lane = lane(1, 10, NexsysExecutor.BackpressurePolicy.REJECT);
+        CountDownLatch ran = new CountDownLatch(1);
+
+        lane.submit(() -> {
+            throw new IllegalStateException("boom");
+        }, () -> {});
+        lane.submit(ran::countDown, () -> {});
+
+        assertThat(ran.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testNestedSubmitsRunConcurrently() throws Exception {
+        ExecutionLane lane = lane(1, 0, NexsysExecutor.BackpressurePolicy.BLOCK);
+        CountDownLatch done = new CountDownLatch(1);
+        List<String> threads = new CopyOnWriteArrayList<>();
+
+        lane.submit(() -> {
+            // Every child waits for its siblings, so they must run at the same time
+            CountDownLatch started = new CountDownLatch(3);
+            CountDownLatch finished = new CountDownLatch(3);
+            Runnable child = () -> {
+                threads.add(Thread.currentThread().toString());
+                started.countDown();
+                awaitQuietly(started);
+                finished.countDown();
+            };
+            lane.submit(child, () -> {});
+            lane.submit(child, () -> {});
+            // Also from a thread the task started, as a coordinator would
+            Thread.ofVirtual().start(() -> lane.submit(child, () -> {}));
+            threads.add(Thread.currentThread().toString());
+            awaitQuietly(finished);
+            done.countDown();
+        }, () -> {});
+
+        assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(threads).hasSize(4).doesNotHaveDuplicates();
+        assertThat(lane.queued()).isZero();
+    }
+
+    @Test
+    void testThreadOfFinishedTaskUsesCap() throws Exception {
+        ExecutionLane lane = lane(1, 0, NexsysExecutor.BackpressurePolicy.REJECT);
+        CountDownLatch taskDone = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        CompletableFuture<Throwable> outcome = new CompletableFuture<>();
+
+        lane.submit(() -> Thread.ofVirtual().start(() -> {
+            awaitQuietly(taskDone);
+            try {
+                lane.submit(() -> {}, () -> {});
+                outcome.complete(null);
+            } catch (RejectedExecutionException e) {
+                outcome.complete(e);
+            }
+        }), () -> {});
+        // Occupy the only slot, then let the orphaned thread submit
+        while (lane.running() != 0) {
+            Thread.onSpinWait();
+        }
+        lane.submit(() -> awaitQuietly(gate), () -> {});
+        taskDone.countDown();
+
+        assertThat(outcome.get(1, TimeUnit.SECONDS)).isInstanceOf(RejectedExecutionException.class);
+        gate.countDown();
+    }
+
+    @Test
+    void testInvalidConfig() {
+        assertThatThrownBy(() -> new NexsysExecutor.LaneConfig(0, 1, NexsysExecutor.BackpressurePolicy.BLOCK))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new NexsysExecutor.LaneConfig(1, -1, NexsysExecutor.BackpressurePolicy.BLOCK))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
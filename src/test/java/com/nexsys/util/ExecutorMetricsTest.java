@@ -0,0 +1,123 @@
+// src/test/java/com/nexsys/util/ExecutorMetricsTest.java
+package com.nexsys.util;
+
+import org.junit.jupiter.api.Test;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import static org.assertj.core.api.Assertions.*;
+
+class ExecutorMetricsTest {
+
+    @Test
+    void testInstrumentCountsOutcomes() throws Exception {
+        ExecutorMetrics metrics = new ExecutorMetrics(() -> 3);
+
+        metrics.instrument("ok", () -> {}, System.nanoTime()).run();
+        Runnable failing = metrics.instrument("failing", () -> {
+            throw new IllegalStateException("boom");
+        }, System.nanoTime());
+        assertThatThrownBy(failing::run).isInstanceOf(IllegalStateException.class);
+        Callable<String> callable = metrics.instrument("ok", () -> "done", System.nanoTime());
+        assertThat(callable.call()).isEqualTo("done");
+        metrics.recordRejected();
+
+        ExecutorMetrics.Snapshot snapshot = metrics.snapshot();
+        assertThat(snapshot.submitted()).isEqualTo(3);
+        assertThat(snapshot.completed()).isEqualTo(2);
+        assertThat(snapshot.failed()).isEqualTo(1);
+        assertThat(snapshot.rejected()).isEqualTo(1);
+        assertThat(snapshot.inFlight()).isZero();
+        assertThat(snapshot.pendingTimers()).isEqualTo(3);
+        assertThat(snapshot.tasks()).containsOnlyKeys("failing", "ok");
+        assertThat(snapshot.tasks().get("ok").count()).isEqualTo(2);
+        assertThat(snapshot.tasks().get("failing").failed()).isEqualTo(1);
+    }
+
+    @Test
+    void testSchedulingLag() {
+        ExecutorMetrics metrics = new ExecutorMetrics(() -> 0);
+
+        metrics.instrument("late", () -> {}, System.nanoTime() - 50_000_000L).run();
+
+        ExecutorMetrics.Distribution lag = metrics.snapshot().tasks().get("late").schedulingLag();
+        assertThat(lag.count()).isEqualTo(1);
+        assertThat(lag.maxMillis()).isGreaterThanOrEqualTo(50.0);
+        assertThat(lag.p99Millis()).isBetween(37.5, lag.maxMillis());
+    }
+
+    @Test
+    void testUnnamedTaskUsesCreatingClass() {
+        ExecutorMetrics metrics = new ExecutorMetrics(() -> 0);
+
+        metrics.instrument(null, () -> {}, System.nanoTime()).run();
+
+        assertThat(metrics.snapshot().tasks()).containsOnlyKeys(ExecutorMetricsTest.class.getName());
+    }
+
+    @Test
+    void testTaskNamesAreCapped() {
+        ExecutorMetrics metrics = new ExecutorMetrics(() -> 0, 10);
+
+        for (int i = 0; i < 100; i++) {
+            metrics.instrument("device-" + i, () -> {}, System.nanoTime()).run();
+        }
+        metrics.instrument("device-0", () -> {}, System.nanoTime()).run();
+
+        ExecutorMetrics.Snapshot snapshot = metrics.snapshot();
+        assertThat(snapshot.tasks()).hasSize(11).containsKey(ExecutorMetrics.OTHER_TASKS);
+        assertThat(snapshot.tasks().get("device-0").count()).isEqualTo(2);
+        assertThat(snapshot.tasks().get(ExecutorMetrics.OTHER_TASKS).count()).isEqualTo(90);
+    }
+
+    @Test
+    void testLaneGauges() {
+        ExecutorMetrics metrics = new ExecutorMetrics(() -> 0,
+                () -> Map.of("BACKGROUND", new ExecutorMetrics.LaneSnapshot(16, 240)), 10);
+
+        assertThat(metrics.snapshot().lanes().get("BACKGROUND").queued()).isEqualTo(240);
+        assertThat(metrics.getLaneRunningTasks()).containsExactly(entry("BACKGROUND", 16));
+        assertThat(metrics.getLaneQueuedTasks()).containsExactly(entry("BACKGROUND", 240));
+    }
+
+    @Test
+    void testHistogramPercentiles() {
+        ExecutorMetrics.Histogram histogram = new ExecutorMetrics.Histogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+
+        ExecutorMetrics.Distribution distribution = histogram.distribution();
+        assertThat(distribution.count()).isEqualTo(100);
+        assertThat(distribution.meanMillis()).isCloseTo(50.5, within(0.001));
+        assertThat(distribution.p50Millis()).isCloseTo(50.0, withinPercentage(25));
+        assertThat(distribution.p99Millis()).isCloseTo(99.0, withinPercentage(25));
+        assertThat(distribution.maxMillis()).isEqualTo(100.0);
+    }
+
+    @Test
+    void testHistogramBucketsAreMonotonic() {
+        int previous = -1;
+        for (long value = 0; value < 1_000_000; value += 7) {
+            int bucket = ExecutorMetrics.Histogram.bucket(value);
+            assertThat(bucket).isGreaterThanOrEqualTo(previous);
+            previous = bucket;
+        }
+        assertThat(ExecutorMetrics.Histogram.bucket(Long.MAX_VALUE)).isGreaterThan(previous);
+    }
+
+    @Test
+    void testRegisteredAsMBean() throws Exception {
+        NexsysExecutor executor = NexsysExecutor.getInstance();
+        executor.submitBlocking("mbean-test", () -> "done").get();
+
+        Object submitted = ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName(NexsysExecutor.MBEAN_NAME), "SubmittedTasks");
+        assertThat((Long) submitted).isPositive();
+        assertThat(executor.metrics().snapshot().tasks()).containsKey("mbean-test");
+        assertThat(executor.metrics().snapshot().lanes()).containsOnlyKeys("CRITICAL", "INTERACTIVE", "BACKGROUND");
+        assertThat(ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName(NexsysExecutor.MBEAN_NAME), "LaneQueuedTasks")).isNotNull();
+    }
+}
\ No newline at end of file
@@ -2,6 +2,10 @@
 package com.nexsys.util;
 
 import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import static org.assertj.core.api.Assertions.*;
 
 class LoopGuardTest {
@@ -25,4 +29,94 @@ class LoopGuardTest {
             LoopGuard.unmarkEventLoopThread();
         }
     }
+
+    @Test
+    void testReportOnlyRunsOperation() {
+        AtomicInteger runs = new AtomicInteger();
+        long violationsBefore = LoopGuard.violationCount();
+
+        LoopGuard.setMode(LoopGuard.Mode.REPORT_ONLY);
+        LoopGuard.markAsEventLoopThread();
+        try {
+            for (int i = 0; i < 1_000; i++) {
+                LoopGuard.protect("blocking-op", runs::incrementAndGet);
+            }
+        } finally {
+            LoopGuard.unmarkEventLoopThread();
+            LoopGuard.setMode(LoopGuard.Mode.STRICT);
+        }
+
+        assertThat(runs.get()).isEqualTo(1_000);
+        assertThat(LoopGuard.violationCount() - violationsBefore).isEqualTo(1_000);
+    }
+
+    @Test
+    void testMarkIsPerThread() throws Exception {
+        LoopGuard.markAsEventLoopThread();
+        try {
+            AtomicInteger runs = new AtomicInteger();
+            Thread other = new Thread(() -> LoopGuard.protect("test-op", runs::incrementAndGet));
+            other.start();
+            other.join();
+
+            assertThat(runs.get()).isEqualTo(1);
+        } finally {
+            LoopGuard.unmarkEventLoopThread();
+        }
+    }
+
+    @Test
+    void testNegativeSampleInterval() {
+        assertThatThrownBy(() -> LoopGuard.setSampleIntervalMillis(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testWatchdogReportsStalls() throws Exception {
+        List<LoopGuard.StallReport> reports = new CopyOnWriteArrayList<>();
+        LoopGuard.startWatchdog(Duration.ofMillis(50), reports::add);
+        try {
+            Thread loop = new Thread(() -> {
+                LoopGuard.markAsEventLoopThread();
+                try {
+                    for (int i = 0; i < 2; i++) {
+                        LoopGuard.heartbeat();
+                        stall();
+                        LoopGuard.idle();
+                        // Idle time is not a stall
+                        Thread.sleep(150);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    LoopGuard.unmarkEventLoopThread();
+                }
+            }, "test-event-loop");
+            loop.start();
+            loop.join();
+        } finally {
+            LoopGuard.stopWatchdog();
+        }
+
+        assertThat(reports).hasSize(2);
+        LoopGuard.StallReport first = reports.get(0);
+        assertThat(first.threadName()).isEqualTo("test-event-loop");
+        assertThat(first.stalledFor()).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+        assertThat(first.location()).contains("LoopGuardTest.stall");
+        assertThat(first.repeatOffender()).isFalse();
+        assertThat(reports.get(1).location()).isEqualTo(first.location());
+        assertThat(reports.get(1).repeatOffender()).isTrue();
+    }
+
+    @Test
+    void testHeartbeatOnNormalThreadIsNoOp() {
+        assertThatCode(() -> {
+            LoopGuard.heartbeat();
+            LoopGuard.idle();
+        }).doesNotThrowAnyException();
+    }
+
+    private static void stall() throws InterruptedException {
+        Thread.sleep(150);
+    }
 }
\ No newline at end of file
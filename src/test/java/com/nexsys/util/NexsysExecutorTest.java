@@ -32,4 +32,51 @@ class NexsysExecutorTest {
         String result = future.get(1, TimeUnit.SECONDS);
         assertThat(result).isEqualTo("success");
     }
+
+    @Test
+    void testCancelRunLater() throws Exception {
+        NexsysExecutor executor = NexsysExecutor.getInstance();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        int before = executor.pendingTimers();
+        ScheduledFuture<?> future = executor.runLater(latch::countDown, Duration.ofMillis(100));
+        assertThat(executor.pendingTimers()).isEqualTo(before + 1);
+
+        assertThat(future.cancel(false)).isTrue();
+        assertThat(latch.await(300, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(executor.pendingTimers()).isEqualTo(before);
+    }
+
+    @Test
+    void testNestedSubmitBlockingInSameLane() throws Exception {
+        NexsysExecutor executor = NexsysExecutor.getInstance();
+
+        CompletableFuture<String> future = executor.submitBlocking(NexsysExecutor.Lane.CRITICAL, () -> {
+            CountDownLatch started = new CountDownLatch(2);
+            Callable<String> child = () -> {
+                started.countDown();
+                started.await();
+                return Thread.currentThread().toString();
+            };
+            CompletableFuture<String> first = executor.submitBlocking(NexsysExecutor.Lane.CRITICAL, child);
+            CompletableFuture<String> second = executor.submitBlocking(NexsysExecutor.Lane.CRITICAL, child);
+            return first.join().equals(second.join()) ? "same thread" : "concurrent";
+        });
+
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo("concurrent");
+    }
+
+    @Test
+    void testSubmitBlockingInLane() throws Exception {
+        NexsysExecutor executor = NexsysExecutor.getInstance();
+
+        CompletableFuture<String> future = executor.submitBlocking(NexsysExecutor.Lane.BACKGROUND, () -> "polled");
+
+        assertThat(future.get(1, TimeUnit.SECONDS)).isEqualTo("polled");
+        assertThat(executor.laneConfig(NexsysExecutor.Lane.CRITICAL).policy())
+                .isEqualTo(NexsysExecutor.BackpressurePolicy.BLOCK);
+        // The default lane must never park the submitter
+        assertThat(executor.laneConfig(NexsysExecutor.Lane.INTERACTIVE).policy())
+                .isEqualTo(NexsysExecutor.BackpressurePolicy.REJECT);
+    }
 }
\ No newline at end of file
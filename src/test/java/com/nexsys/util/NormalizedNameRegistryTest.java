@@ -3,6 +3,16 @@ package com.nexsys.util;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.assertj.core.api.Assertions.*;
 
 class NormalizedNameRegistryTest {
@@ -18,6 +28,17 @@ class NormalizedNameRegistryTest {
     }
 
     static class TestRegistry extends NormalizedNameRegistry<TestEntry> {
+        TestRegistry() {
+        }
+
+        TestRegistry(boolean searchable) {
+            super(searchable);
+        }
+
+        TestRegistry(boolean searchable, boolean customNormalization) {
+            super(searchable, customNormalization);
+        }
+
         @Override
         protected String getName(TestEntry entry) {
             return entry.name;
@@ -75,4 +96,257 @@ class NormalizedNameRegistryTest {
         assertThat(registry.containsName("test name")).isTrue();
         assertThat(registry.containsId("id2")).isFalse();
     }
+
+    @Test
+    void testNormalizeMatchesRegexNormalization() {
+        String[] names = {"", "plain", "Living Room", " \tTab\nNew\u000BLine\f\r ", "ÜBER Küche", "ΟΔΟΣ Σ", "İstanbul"};
+        for (String name : names) {
+            assertThat(NormalizedNameRegistry.normalize(name))
+                    .isEqualTo(name.toLowerCase(java.util.Locale.ROOT).replaceAll("\\s+", ""));
+        }
+        String normalized = "alreadynormal";
+        assertThat(NormalizedNameRegistry.normalize(normalized)).isSameAs(normalized);
+    }
+
+    @Test
+    void testNormalizedHashAndFormWithoutNormalizing() {
+        String name = "  Living ROOM ";
+
+        assertThat((int) NormalizedNameRegistry.normalizedHash(name)).isEqualTo("livingroom".hashCode());
+        assertThat(NormalizedNameRegistry.isNormalizedForm("livingroom", name)).isTrue();
+        assertThat(NormalizedNameRegistry.isNormalizedForm("livingroo", name)).isFalse();
+        assertThat(NormalizedNameRegistry.isNormalizedForm("livingrooms", name)).isFalse();
+        assertThat(NormalizedNameRegistry.normalizedHash("Küche")).isNegative();
+    }
+
+    @Test
+    void testNonAsciiLookup() {
+        TestEntry entry = new TestEntry("id1", "Küche Licht");
+        registry.register(entry);
+
+        assertThat(registry.getByName("KÜCHE licht")).isSameAs(entry);
+        assertThat(registry.containsName("küchelicht")).isTrue();
+    }
+
+    @Test
+    void testCustomNormalizationIsUsedForLookups() {
+        NormalizedNameRegistry<TestEntry> custom = new TestRegistry() {
+            @Override
+            protected String normalizeName(String name) {
+                return name.replace("-", "").toLowerCase(java.util.Locale.ROOT);
+            }
+        };
+        TestEntry entry = new TestEntry("id1", "Front-Door");
+        custom.register(entry);
+
+        assertThat(custom.getByName("frontdoor")).isSameAs(entry);
+        assertThat(custom.getByName("Front Door")).isNull();
+        assertThat(custom.looksUpInPlace()).isFalse();
+    }
+
+    @Test
+    void testDeclaredCustomNormalizationIsUsedForLookups() {
+        TestRegistry declared = new TestRegistry(false, true);
+        TestEntry entry = new TestEntry("id1", "Front Door");
+        declared.register(entry);
+
+        assertThat(registry.looksUpInPlace()).isTrue();
+        assertThat(declared.looksUpInPlace()).isFalse();
+        assertThat(declared.getByName("FRONT door")).isSameAs(entry);
+    }
+
+    static class SearchableRegistry extends TestRegistry {
+        SearchableRegistry() {
+            super(true);
+        }
+    }
+
+    @Test
+    void testFindByPrefix() {
+        SearchableRegistry searchable = new SearchableRegistry();
+        searchable.register(new TestEntry("id1", "Kitchen Light"));
+        searchable.register(new TestEntry("id2", "Kitchen Fan"));
+        searchable.register(new TestEntry("id3", "Living Room Light"));
+
+        assertThat(searchable.findByPrefix("KITCHEN", 10)).extracting(e -> e.id).containsExactly("id2", "id1");
+        assertThat(searchable.findByPrefix("kitchen l", 10)).extracting(e -> e.id).containsExactly("id1");
+        assertThat(searchable.findByPrefix("", 2)).hasSize(2);
+        assertThat(searchable.findByPrefix("garage", 10)).isEmpty();
+    }
+
+    @Test
+    void testFindSimilarRanksByDistance() {
+        SearchableRegistry searchable = new SearchableRegistry();
+        searchable.register(new TestEntry("id1", "Kitchen Light"));
+        searchable.register(new TestEntry("id2", "Kitchen Lights"));
+        searchable.register(new TestEntry("id3", "Bedroom Light"));
+
+        List<NormalizedNameRegistry.NameMatch<TestEntry>> matches = searchable.findSimilar("kitchn light", 2, 10);
+
+        assertThat(matches).extracting(m -> m.entry().id).containsExactly("id1", "id2");
+        assertThat(matches).extracting(NormalizedNameRegistry.NameMatch::distance).containsExactly(1, 2);
+        assertThat(searchable.findSimilar("kitchn light", 2, 1)).hasSize(1);
+        assertThat(searchable.findSimilar("fan", 1, 10)).isEmpty();
+    }
+
+    @Test
+    void testSearchIndexFollowsUpdates() {
+        SearchableRegistry searchable = new SearchableRegistry();
+        searchable.register(new TestEntry("id1", "Porch Lamp"));
+        searchable.register(new TestEntry("id2", "Porch Fan"));
+
+        searchable.remove("id1");
+
+        assertThat(searchable.findByPrefix("porch", 10)).extracting(e -> e.id).containsExactly("id2");
+        assertThat(searchable.findSimilar("porch lamp", 1, 10)).isEmpty();
+
+        searchable.clear();
+
+        assertThat(searchable.findByPrefix("", 10)).isEmpty();
+    }
+
+    @Test
+    void testFindSimilarMatchesBruteForce() {
+        SearchableRegistry searchable = new SearchableRegistry();
+        Random random = new Random(7);
+        String[] words = {"kitchen", "bedroom", "hall", "lamp", "light", "fan", "sensor"};
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + i;
+            searchable.register(new TestEntry("id" + i, name));
+            names.add(NormalizedNameRegistry.normalize(name));
+        }
+
+        for (String query : new String[]{"kitchn lamp 12", "hal fan 3", "lamp", "sensr light 499"}) {
+            for (int k = 0; k <= 2; k++) {
+                int max = k;
+                String normalized = NormalizedNameRegistry.normalize(query);
+                List<String> expected = names.stream()
+                        .filter(n -> NameSearchIndex.boundedDistance(normalized, n, 100,
+                                new int[normalized.length() + 1], new int[normalized.length() + 1]) <= max)
+                        .toList();
+
+                assertThat(searchable.findSimilar(query, k, 1000))
+                        .extracting(m -> NormalizedNameRegistry.normalize(m.entry().name))
+                        .containsExactlyInAnyOrderElementsOf(expected);
+            }
+        }
+    }
+
+    @Test
+    void testSearchRequiresIndex() {
+        assertThat(registry.isSearchable()).isFalse();
+        assertThat(new SearchableRegistry().isSearchable()).isTrue();
+        assertThatThrownBy(() -> registry.findByPrefix("a", 10)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> registry.findSimilar("a", 1, 10)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new SearchableRegistry().findSimilar("a", -1, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testRegisterWithSameIdRenames() {
+        registry.register(new TestEntry("id1", "Old Name"));
+        TestEntry renamed = new TestEntry("id1", "New Name");
+
+        registry.register(renamed);
+
+        assertThat(registry.getByName("Old Name")).isNull();
+        assertThat(registry.getByName("New Name")).isSameAs(renamed);
+        assertThat(registry.size()).isEqualTo(1);
+
+        registry.register(new TestEntry("id2", "Old Name"));
+        assertThat(registry.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testRename() {
+        TestEntry original = new TestEntry("id1", "Old Name");
+        registry.register(original);
+        registry.register(new TestEntry("id2", "Taken"));
+
+        assertThat(registry.rename(new TestEntry("id1", "New Name"))).isSameAs(original);
+        assertThat(registry.containsName("old name")).isFalse();
+        assertThat(registry.containsName("new name")).isTrue();
+        assertThatThrownBy(() -> registry.rename(new TestEntry("id1", "TAKEN")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already exists");
+        assertThatThrownBy(() -> registry.rename(new TestEntry("id3", "Other")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No entry");
+        assertThat(registry.containsName("new name")).isTrue();
+    }
+
+    @Test
+    void testRegisterAllIsAllOrNothing() {
+        registry.register(new TestEntry("id1", "Existing"));
+
+        assertThatThrownBy(() -> registry.registerAll(List.of(
+                new TestEntry("id2", "First"),
+                new TestEntry("id3", "EXISTING"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(registry.size()).isEqualTo(1);
+        assertThat(registry.containsId("id2")).isFalse();
+
+        assertThatThrownBy(() -> registry.registerAll(List.of(
+                new TestEntry("id2", "Same"),
+                new TestEntry("id3", "same"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(registry.size()).isEqualTo(1);
+
+        registry.registerAll(List.of(new TestEntry("id2", "Second"), new TestEntry("id3", "Third")));
+        assertThat(registry.getAllIds()).containsExactlyInAnyOrder("id1", "id2", "id3");
+    }
+
+    @Test
+    void testSnapshotsAreStable() {
+        registry.register(new TestEntry("id1", "One"));
+        var ids = registry.getAllIds();
+
+        registry.register(new TestEntry("id2", "Two"));
+
+        assertThat(ids).containsExactly("id1");
+        assertThat(registry.getAllIds()).hasSize(2);
+    }
+
+    @Test
+    void testConcurrentUpdatesKeepIndexesConsistent() throws Exception {
+        SearchableRegistry searchable = new SearchableRegistry();
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Random random = new Random(t);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        String id = "id" + random.nextInt(100);
+                        String name = "name " + random.nextInt(150);
+                        try {
+                            switch (random.nextInt(4)) {
+                                case 0 -> searchable.remove(id);
+                                case 1 -> searchable.registerAll(List.of(
+                                        new TestEntry(id, name),
+                                        new TestEntry("id" + random.nextInt(100), "name " + random.nextInt(150))));
+                                default -> searchable.register(new TestEntry(id, name));
+                            }
+                        } catch (IllegalArgumentException e) {
+                            // Name taken by another entry
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Set<String> names = new HashSet<>();
+        for (TestEntry entry : searchable.getAll()) {
+            assertThat(searchable.getByName(entry.name)).isSameAs(entry);
+            assertThat(names.add(NormalizedNameRegistry.normalize(entry.name))).isTrue();
+        }
+        assertThat(searchable.findByPrefix("", 1_000)).containsExactlyInAnyOrderElementsOf(searchable.getAll());
+    }
 }
\ No newline at end of file
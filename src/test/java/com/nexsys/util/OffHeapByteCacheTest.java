@@ -0,0 +1,165 @@
+// src/test/java/com/nexsys/util/OffHeapByteCacheTest.java
+package com.nexsys.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OffHeapByteCacheTest {
+
+    private static byte[] bytes(int length, int fill) {
+        byte[] value = new byte[length];
+        Arrays.fill(value, (byte) fill);
+        return value;
+    }
+
+    @Test
+    void testPutAndGet() {
+        OffHeapByteCache<String> cache = new OffHeapByteCache<>(1024);
+
+        cache.put("a", new byte[]{1, 2, 3});
+
+        assertThat(cache.get("a")).containsExactly(1, 2, 3);
+        assertThat(cache.get("missing")).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.usedBytes()).isEqualTo(3);
+    }
+
+    @Test
+    void testFifoEvictionByBytes() {
+        OffHeapByteCache<String> cache = new OffHeapByteCache<>(30);
+
+        cache.put("a", bytes(10, 1));
+        cache.put("b", bytes(10, 2));
+        cache.put("c", bytes(10, 3));
+        cache.get("a");
+
+        // Adding another 10 bytes should evict "a", the oldest entry
+        cache.put("d", bytes(10, 4));
+
+        assertThat(cache.containsKey("a")).isFalse();
+        assertThat(cache.get("b")).isEqualTo(bytes(10, 2));
+        assertThat(cache.get("d")).isEqualTo(bytes(10, 4));
+        assertThat(cache.usedBytes()).isEqualTo(30);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testLargeValueEvictsSeveralEntries() {
+        OffHeapByteCache<String> cache = new OffHeapByteCache<>(30);
+
+        cache.put("a", bytes(10, 1));
+        cache.put("b", bytes(10, 2));
+        cache.put("c", bytes(10, 3));
+        cache.put("d", bytes(25, 4));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("d")).isEqualTo(bytes(25, 4));
+    }
+
+    @Test
+    void testReplaceMakesEntryNewest() {
+        OffHeapByteCache<String> cache = new OffHeapByteCache<>(30);
+
+        cache.put("a", bytes(10, 1));
+        cache.put("b", bytes(10, 2));
+        cache.put("a", bytes(10, 5));
+
+        // "c" reuses the space of the replaced value, "d" evicts "b"
+        cache.put("c", bytes(10, 3));
+        cache.put("d", bytes(10, 4));
+
+        assertThat(cache.containsKey("b")).isFalse();
+        assertThat(cache.get("a")).isEqualTo(bytes(10, 5));
+        assertThat(cache.get("c")).isEqualTo(bytes(10, 3));
+        assertThat(cache.get("d")).isEqualTo(bytes(10, 4));
+    }
+
+    @Test
+    void testEmptyValuesAreBounded() {
+        OffHeapByteCache<String> cache = new OffHeapByteCache<>(30);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put("empty", new byte[0]);
+            cache.put("key" + i, new byte[0]);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(30);
+        assertThat(cache.get("empty")).isEmpty();
+        assertThat(cache.get("key999")).isEmpty();
+        assertThat(cache.usedBytes()).isZero();
+    }
+
+    @Test
+    void testValuesDoNotSpanSlabs() {
+        OffHeapByteCache<String> cache = new OffHeapByteCache<>(40, 20);
+
+        cache.put("a", bytes(15, 1));
+        cache.put("b", bytes(15, 2));
+        cache.put("c", bytes(15, 3));
+
+        assertThat(cache.containsKey("a")).isFalse();
+        assertThat(cache.get("b")).isEqualTo(bytes(15, 2));
+        assertThat(cache.get("c")).isEqualTo(bytes(15, 3));
+    }
+
+    @Test
+    void testReadGivesReadOnlyDirectView() {
+        OffHeapByteCache<String> cache = new OffHeapByteCache<>(1024);
+        cache.put("a", ByteBuffer.wrap(new byte[]{1, 2, 3, 4}));
+
+        Integer sum = cache.read("a", buffer -> {
+            assertThat(buffer.isDirect()).isTrue();
+            assertThat(buffer.isReadOnly()).isTrue();
+            assertThatThrownBy(() -> buffer.put(0, (byte) 9)).isInstanceOf(ReadOnlyBufferException.class);
+            int total = 0;
+            while (buffer.hasRemaining()) {
+                total += buffer.get();
+            }
+            return total;
+        });
+
+        assertThat(sum).isEqualTo(10);
+        assertThat(cache.read("missing", buffer -> 1)).isNull();
+    }
+
+    @Test
+    void testPutDoesNotConsumeBuffer() {
+        OffHeapByteCache<String> cache = new OffHeapByteCache<>(1024);
+        ByteBuffer source = ByteBuffer.wrap(new byte[]{1, 2, 3});
+
+        cache.put("a", source);
+
+        assertThat(source.remaining()).isEqualTo(3);
+    }
+
+    @Test
+    void testRemoveAndClear() {
+        OffHeapByteCache<String> cache = new OffHeapByteCache<>(1024);
+        cache.put("a", bytes(10, 1));
+        cache.put("b", bytes(10, 2));
+
+        assertThat(cache.remove("a")).isTrue();
+        assertThat(cache.remove("a")).isFalse();
+        assertThat(cache.usedBytes()).isEqualTo(10);
+
+        cache.clear();
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.usedBytes()).isZero();
+    }
+
+    @Test
+    void testInvalidSizes() {
+        assertThatThrownBy(() -> new OffHeapByteCache<String>(0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new OffHeapByteCache<String>(10, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new OffHeapByteCache<String>(30, 10).put("a", new byte[11]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
\ No newline at end of file
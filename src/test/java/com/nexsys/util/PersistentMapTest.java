@@ -0,0 +1,176 @@
+// src/test/java/com/nexsys/util/PersistentMapTest.java
+package com.nexsys.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PersistentMapTest {
+
+    /** Key type whose instances collide on purpose. */
+    private record CollidingKey(int id) {
+        @Override
+        public int hashCode() {
+            return id % 3;
+        }
+    }
+
+    @Test
+    void testWithAndWithoutLeaveOriginalUnchanged() {
+        PersistentMap<String, Integer> original = PersistentMap.<String, Integer>empty()
+                .with("a", 1)
+                .with("b", 2);
+
+        PersistentMap<String, Integer> updated = original.with("c", 3).without("a");
+
+        assertThat(original).containsOnly(entry("a", 1), entry("b", 2));
+        assertThat(updated).containsOnly(entry("b", 2), entry("c", 3));
+        assertThat(updated.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testNoOpUpdatesReturnSameInstance() {
+        PersistentMap<String, Integer> map = PersistentMap.<String, Integer>empty().with("a", 1);
+
+        assertThat(map.with("a", 1)).isSameAs(map);
+        assertThat(map.without("missing")).isSameAs(map);
+        assertThat(map.without("a")).isSameAs(PersistentMap.empty());
+    }
+
+    @Test
+    void testNullKeysAndValues() {
+        PersistentMap<String, Integer> map = PersistentMap.<String, Integer>empty()
+                .with(null, 1)
+                .with("a", null);
+
+        assertThat(map.get(null)).isEqualTo(1);
+        assertThat(map.containsKey("a")).isTrue();
+        assertThat(map.get("a")).isNull();
+        assertThat(map.getOrDefault("b", 5)).isEqualTo(5);
+    }
+
+    @Test
+    void testHashCollisions() {
+        PersistentMap<CollidingKey, Integer> map = PersistentMap.empty();
+        for (int i = 0; i < 30; i++) {
+            map = map.with(new CollidingKey(i), i);
+        }
+        for (int i = 0; i < 30; i += 2) {
+            map = map.without(new CollidingKey(i));
+        }
+
+        assertThat(map).hasSize(15);
+        PersistentMap.KeyEquivalence sameId = (token, key) -> ((CollidingKey) key).id() == (Integer) token;
+        for (int i = 1; i < 30; i += 2) {
+            assertThat(map.get(new CollidingKey(i))).isEqualTo(i);
+            assertThat(map.getEquivalent(i, i % 3, sameId)).isEqualTo(i);
+        }
+        assertThat(map.get(new CollidingKey(0))).isNull();
+    }
+
+    @Test
+    void testGetEquivalent() {
+        PersistentMap.KeyEquivalence sameNumber = (token, key) -> ((Integer) token).toString().equals(key);
+        PersistentMap<String, Integer> map = PersistentMap.empty();
+        for (int i = 0; i < 1000; i++) {
+            map = map.with(Integer.toString(i), i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(map.getEquivalent(i, Integer.toString(i).hashCode(), sameNumber)).isEqualTo(i);
+        }
+        assertThat(map.getEquivalent(1000, "1000".hashCode(), sameNumber)).isNull();
+        assertThat(map.getEquivalent(7, "8".hashCode(), sameNumber)).isNull();
+    }
+
+    @Test
+    void testMatchesHashMapUnderRandomUpdates() {
+        Random random = new Random(42);
+        PersistentMap<Integer, Integer> map = PersistentMap.empty();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                map = map.without(key);
+                expected.remove(key);
+            } else {
+                map = map.with(key, i);
+                expected.put(key, i);
+            }
+        }
+
+        assertThat(map).isEqualTo(expected);
+        assertThat(expected).isEqualTo(map);
+        assertThat(map.hashCode()).isEqualTo(expected.hashCode());
+    }
+
+    @Test
+    void testEqualityIsIndependentOfUpdateOrder() {
+        PersistentMap<Integer, String> ascending = PersistentMap.empty();
+        PersistentMap<Integer, String> descending = PersistentMap.empty();
+        for (int i = 0; i < 1_000; i++) {
+            ascending = ascending.with(i, "v" + i);
+            descending = descending.with(999 - i, "v" + (999 - i));
+        }
+
+        assertThat(ascending).isEqualTo(descending);
+        assertThat(ascending.with(1_000, "x").without(1_000)).isEqualTo(descending);
+        assertThat(ascending.with(5, "changed")).isNotEqualTo(descending);
+    }
+
+    @Test
+    void testDiff() {
+        PersistentMap<String, Integer> before = PersistentMap.copyOf(Map.of("a", 1, "b", 2, "c", 3));
+        PersistentMap<String, Integer> after = before.with("b", 20).without("c").with("d", 4);
+
+        PersistentMap.Diff<String, Integer> diff = before.diff(after);
+
+        assertThat(diff.added()).containsOnly(entry("d", 4));
+        assertThat(diff.removed()).containsOnly(entry("c", 3));
+        assertThat(diff.changed()).containsOnly(entry("b", new PersistentMap.ValueChange<>(2, 20)));
+        assertThat(before.diff(before).isEmpty()).isTrue();
+    }
+
+    @Test
+    void testDiffOfLargeMaps() {
+        PersistentMap<Integer, Integer> before = PersistentMap.empty();
+        for (int i = 0; i < 10_000; i++) {
+            before = before.with(i, i);
+        }
+        PersistentMap<Integer, Integer> after = before.with(42, -1).without(7);
+
+        PersistentMap.Diff<Integer, Integer> diff = before.diff(after);
+
+        assertThat(diff.added()).isEmpty();
+        assertThat(diff.removed()).containsOnly(entry(7, 7));
+        assertThat(diff.changed()).containsOnly(entry(42, new PersistentMap.ValueChange<>(42, -1)));
+    }
+
+    @Test
+    void testImmutable() {
+        PersistentMap<String, Integer> map = PersistentMap.<String, Integer>empty().with("a", 1);
+
+        assertThatThrownBy(() -> map.put("b", 2)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> map.remove("a")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> map.entrySet().iterator().remove())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testReadOnlyMapSnapshot() {
+        Map<String, Integer> source = new HashMap<>(Map.of("a", 1));
+
+        PersistentMap<String, Integer> snapshot = ReadOnlyMap.snapshot(source);
+        source.put("b", 2);
+
+        assertThat(snapshot).containsOnly(entry("a", 1));
+        assertThat(ReadOnlyMap.snapshot(snapshot)).isSameAs(snapshot);
+        assertThat(ReadOnlyMap.copyOf(snapshot)).isSameAs(snapshot);
+        assertThat(ReadOnlyMap.snapshot(null)).isEmpty();
+    }
+}
\ No newline at end of file
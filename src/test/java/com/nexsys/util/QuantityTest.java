@@ -0,0 +1,176 @@
+// src/test/java/com/nexsys/util/QuantityTest.java
+package com.nexsys.util;
+
+import com.nexsys.util.units.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class QuantityTest {
+
+    @Test
+    void testValueIn() {
+        Quantity distance = new Quantity(1.5, LengthUnit.KILOMETRE);
+
+        assertThat(distance.valueIn(LengthUnit.METRE)).isCloseTo(1500, within(1e-9));
+        assertThat(distance.valueIn(LengthUnit.KILOMETRE)).isEqualTo(1.5);
+        assertThatThrownBy(() -> distance.valueIn(MassUnit.GRAM))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("LengthUnit");
+    }
+
+    @Test
+    void testConvertToSameUnitReturnsSameInstance() {
+        Quantity power = new Quantity(100, PowerUnit.WATT);
+
+        assertThat(power.convertTo(PowerUnit.WATT)).isSameAs(power);
+        assertThat(power.convertTo(PowerUnit.KILOWATT)).isEqualTo(new Quantity(0.1, PowerUnit.KILOWATT));
+    }
+
+    @Test
+    void testPlusAndMinusAcrossUnits() {
+        Quantity energy = new Quantity(1.5, EnergyUnit.KILOWATT_HOUR);
+
+        Quantity sum = energy.plus(new Quantity(500, EnergyUnit.WATT_HOUR));
+        Quantity difference = energy.minus(new Quantity(250, EnergyUnit.WATT_HOUR));
+
+        assertThat(sum.unit()).isEqualTo(EnergyUnit.KILOWATT_HOUR);
+        assertThat(sum.value()).isCloseTo(2.0, within(1e-9));
+        assertThat(difference.value()).isCloseTo(1.25, within(1e-9));
+        assertThatThrownBy(() -> energy.plus(new Quantity(1, PowerUnit.WATT)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testTemperaturesOnlyAddInTheSameUnit() {
+        Quantity celsius = new Quantity(20, TemperatureUnit.CELSIUS);
+        Quantity fahrenheit = new Quantity(50, TemperatureUnit.FAHRENHEIT);
+
+        assertThat(celsius.plus(new Quantity(5, TemperatureUnit.CELSIUS)))
+                .isEqualTo(new Quantity(25, TemperatureUnit.CELSIUS));
+        assertThat(celsius.minus(fahrenheit.convertTo(TemperatureUnit.CELSIUS)).value())
+                .isCloseTo(10, within(1e-9));
+        assertThatThrownBy(() -> celsius.plus(fahrenheit))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> fahrenheit.plus(celsius))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> celsius.minus(new Quantity(293.15, TemperatureUnit.KELVIN)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testMultipliedBy() {
+        assertThat(new Quantity(2.5, VolumeUnit.LITER).multipliedBy(4))
+                .isEqualTo(new Quantity(10, VolumeUnit.LITER));
+    }
+
+    @Test
+    void testCompareAcrossUnits() {
+        Quantity metre = new Quantity(1000, LengthUnit.METRE);
+        Quantity kilometre = new Quantity(1, LengthUnit.KILOMETRE);
+        Quantity mile = new Quantity(1, LengthUnit.MILE);
+
+        assertThat(metre.compareTo(kilometre)).isZero();
+        assertThat(metre).isNotEqualTo(kilometre);
+        assertThat(mile.compareTo(kilometre)).isPositive();
+        assertThat(kilometre.compareTo(mile)).isNegative();
+
+        List<Quantity> sorted = new ArrayList<>(List.of(mile, new Quantity(10, LengthUnit.METRE), kilometre));
+        Collections.sort(sorted);
+        assertThat(sorted).extracting(Quantity::unit)
+                .containsExactly(LengthUnit.METRE, LengthUnit.KILOMETRE, LengthUnit.MILE);
+    }
+
+    @Test
+    void testThresholdChecks() {
+        Quantity temperature = new Quantity(71.6, TemperatureUnit.FAHRENHEIT);
+
+        assertThat(temperature.isGreaterThan(21.9, TemperatureUnit.CELSIUS)).isTrue();
+        assertThat(temperature.isLessThan(22.1, TemperatureUnit.CELSIUS)).isTrue();
+        assertThat(temperature.compareTo(295.15, TemperatureUnit.KELVIN)).isZero();
+        assertThatThrownBy(() -> temperature.isGreaterThan(1, PressureUnit.BAR))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testMinAndMaxReturnAnOperand() {
+        Quantity small = new Quantity(900, PowerUnit.WATT);
+        Quantity large = new Quantity(1, PowerUnit.KILOWATT);
+
+        assertThat(Quantity.min(small, large)).isSameAs(small);
+        assertThat(Quantity.max(small, large)).isSameAs(large);
+
+        Quantity same = new Quantity(1000, PowerUnit.WATT);
+        assertThat(Quantity.min(large, same)).isSameAs(large);
+        assertThat(Quantity.max(large, same)).isSameAs(large);
+    }
+
+    @Test
+    void testIsCompatibleWith() {
+        Quantity speed = new Quantity(10, SpeedUnit.KNOT);
+
+        assertThat(speed.isCompatibleWith(SpeedUnit.BEAUFORT)).isTrue();
+        assertThat(speed.isCompatibleWith(LengthUnit.METRE)).isFalse();
+    }
+
+    @Test
+    void testToStringStyles() {
+        Locale previous = Locale.getDefault(Locale.Category.FORMAT);
+        Locale.setDefault(Locale.Category.FORMAT, Locale.US);
+        try {
+            assertThat(new Quantity(21.46, TemperatureUnit.CELSIUS)).hasToString("21.5 °C");
+            assertThat(new Quantity(4.4, SpeedUnit.BEAUFORT)).hasToString("4 Bft");
+            assertThat(new Quantity(45, RatioUnit.PERCENT)).hasToString("45.0%");
+            assertThat(new Quantity(1013.256, PressureUnit.HECTOPASCAL)).hasToString("1013.26 hPa");
+            assertThat(new Quantity(0.05, LengthUnit.METRE)).hasToString("0.05 m");
+            assertThat(new Quantity(2, EnergyUnit.KILOWATT_HOUR)).hasToString("2.00 KILOWATT_HOUR");
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, previous);
+        }
+    }
+
+    @Test
+    void testToStringMatchesStringFormat() {
+        Locale previous = Locale.getDefault(Locale.Category.FORMAT);
+        double[] values = {0, -0.0, -0.004, 0.005, 0.015, 0.125, 1.005, 2.675, 0.95, 9.995, 99.95, -2.5,
+                123456.785, 1e15, -1e20, Double.NaN, Double.POSITIVE_INFINITY, Double.MIN_VALUE};
+        Random random = new Random(42);
+        try {
+            for (Locale locale : new Locale[]{Locale.US, Locale.GERMANY, Locale.forLanguageTag("th-TH-u-nu-thai")}) {
+                Locale.setDefault(Locale.Category.FORMAT, locale);
+                for (int i = 0; i < 10_000; i++) {
+                    double value = i < values.length ? values[i] : (random.nextInt(2_000_000) - 1_000_000) / 1000.0;
+                    assertThat(new Quantity(value, TemperatureUnit.KELVIN).toString())
+                            .isEqualTo(String.format("%.1f %s", value, "K"));
+                    assertThat(new Quantity(value, SpeedUnit.BEAUFORT).toString())
+                            .isEqualTo(String.format("%.0f Bft", value));
+                    assertThat(new Quantity(value, MassUnit.KILOGRAM).toString())
+                            .isEqualTo(String.format("%.2f %s", value, "kg"));
+                }
+            }
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, previous);
+        }
+    }
+
+    @Test
+    void testAppendTo() throws IOException {
+        Quantity quantity = new Quantity(3.14159, LengthUnit.KILOMETRE);
+        StringBuilder builder = new StringBuilder("Distance: ");
+
+        assertThat(quantity.appendTo(builder)).isSameAs(builder);
+        assertThat(builder.toString()).isEqualTo("Distance: " + quantity);
+
+        StringWriter writer = new StringWriter();
+        quantity.appendTo((Appendable) writer);
+        assertThat(writer.toString()).isEqualTo(quantity.toString());
+    }
+}
\ No newline at end of file
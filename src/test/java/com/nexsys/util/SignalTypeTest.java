@@ -2,6 +2,7 @@
 package com.nexsys.util;
 
 import org.junit.jupiter.api.Test;
+import java.util.MissingFormatArgumentException;
 import static org.junit.jupiter.api.Assertions.*;
 
 class SignalTypeTest {
@@ -49,4 +50,19 @@ class SignalTypeTest {
     void testNullValue() {
         assertThrows(NullPointerException.class, () -> SignalType.of(null));
     }
+
+    @Test
+    void testInterned() {
+        SignalType<Integer> signal1 = SignalType.of("device_abc_updated");
+        SignalType<String> signal2 = SignalType.format("device_%s_updated", "abc");
+
+        assertSame(signal1, signal2);
+    }
+
+    @Test
+    void testFormatMatchesStringFormat() {
+        assertEquals(String.format("a_%05d_%s%%", 7, null), SignalType.format("a_%05d_%s%%", 7, null).toString());
+        assertEquals(String.format("b_%d_%s", -42L, 1.5), SignalType.format("b_%d_%s", -42L, 1.5).toString());
+        assertThrows(MissingFormatArgumentException.class, () -> SignalType.format("%s_%s", "only"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+// src/test/java/com/nexsys/util/TaskScopeTest.java
+package com.nexsys.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.*;
+
+class TaskScopeTest {
+
+    @Test
+    void testCompletionOrder() throws Exception {
+        List<Integer> results = new ArrayList<>();
+        try (TaskScope<Integer> scope = TaskScope.open(TaskScope.Policy.FAIL_FAST, 3)) {
+            for (int i = 0; i < 3; i++) {
+                int delay = (3 - i) * 30;
+                int value = i;
+                scope.fork(() -> {
+                    Thread.sleep(delay);
+                    return value;
+                });
+            }
+            TaskScope.Completion<Integer> completion;
+            while ((completion = scope.take()) != null) {
+                results.add(completion.value());
+            }
+        }
+
+        assertThat(results).containsExactly(2, 1, 0);
+    }
+
+    @Test
+    void testConcurrencyLimit() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        try (TaskScope<Integer> scope = TaskScope.open(TaskScope.Policy.FAIL_FAST, 2)) {
+            for (int i = 0; i < 10; i++) {
+                scope.fork(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(10);
+                    running.decrementAndGet();
+                    return 0;
+                });
+            }
+            scope.join();
+        }
+
+        assertThat(maxRunning.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testFailFastCancelsSiblings() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger interrupted = new AtomicInteger();
+
+        try (TaskScope<Integer> scope = TaskScope.open(TaskScope.Policy.FAIL_FAST, 2)) {
+            scope.fork(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.incrementAndGet();
+                    throw e;
+                }
+                return 1;
+            });
+            started.await();
+            scope.fork(() -> {
+                throw new IllegalStateException("boom");
+            });
+
+            TaskScope.Completion<Integer> completion = scope.take();
+            assertThat(completion.failed()).isTrue();
+            assertThat(scope.take()).isNull();
+            assertThat(scope.isShutdown()).isTrue();
+            assertThat(scope.failure()).isInstanceOf(IllegalStateException.class);
+            assertThat(scope.fork(() -> 3)).isFalse();
+
+            scope.join();
+        }
+
+        assertThat(interrupted.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testCollectAll() throws Exception {
+        int failures = 0;
+        int successes = 0;
+
+        try (TaskScope<Integer> scope = TaskScope.open(TaskScope.Policy.COLLECT_ALL, 2)) {
+            for (int i = 0; i < 6; i++) {
+                int value = i;
+                scope.fork(() -> {
+                    if (value % 2 == 0) {
+                        throw new IllegalArgumentException("even");
+                    }
+                    return value;
+                });
+            }
+            TaskScope.Completion<Integer> completion;
+            while ((completion = scope.take()) != null) {
+                if (completion.failed()) {
+                    failures++;
+                } else {
+                    successes++;
+                }
+            }
+            assertThat(scope.failure()).isNull();
+        }
+
+        assertThat(failures).isEqualTo(3);
+        assertThat(successes).isEqualTo(3);
+    }
+
+    @Test
+    void testCloseInterruptsRunningTasks() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch exited = new CountDownLatch(1);
+
+        TaskScope<Integer> scope = TaskScope.open(TaskScope.Policy.COLLECT_ALL, 1);
+        scope.fork(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+                return 1;
+            } finally {
+                exited.countDown();
+            }
+        });
+        started.await();
+        scope.close();
+
+        assertThat(exited.await(0, TimeUnit.MILLISECONDS)).isTrue();
+        assertThatThrownBy(() -> scope.fork(() -> 2)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testInvalidConcurrency() {
+        assertThatThrownBy(() -> TaskScope.open(TaskScope.Policy.FAIL_FAST, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
\ No newline at end of file
@@ -60,4 +60,58 @@ class TimeoutUtilsTest {
 
         assertThat(result).isEqualTo("result");
     }
+
+    @Test
+    void testSupplyAsyncTimeoutInterruptsWork() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        long timedOutBefore = TimeoutUtils.timedOutCount();
+
+        CompletableFuture<String> future = TimeoutUtils.supplyAsync(() -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "too late";
+        }, Duration.ofMillis(50));
+
+        assertThatThrownBy(future::get).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeoutUtils.timedOutCount()).isGreaterThan(timedOutBefore);
+    }
+
+    @Test
+    void testCallWithTimeoutInterruptsWork() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThatThrownBy(() -> TimeoutUtils.callWithTimeout(() -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "too late";
+        }, Duration.ofMillis(50))).isInstanceOf(TimeoutException.class);
+
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testCallWithTimeoutRunsOnVirtualThread() throws Exception {
+        long completedBefore = TimeoutUtils.completedCount();
+
+        boolean virtual = TimeoutUtils.callWithTimeout(() -> Thread.currentThread().isVirtual(), Duration.ofSeconds(1));
+
+        assertThat(virtual).isTrue();
+        assertThat(TimeoutUtils.completedCount()).isGreaterThan(completedBefore);
+    }
+
+    @Test
+    void testCallWithTimeoutFailure() {
+        assertThatThrownBy(() -> TimeoutUtils.callWithTimeout(() -> {
+            throw new IllegalStateException("boom");
+        }, Duration.ofSeconds(1)))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
 }
\ No newline at end of file
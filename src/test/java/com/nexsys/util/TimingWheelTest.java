@@ -0,0 +1,111 @@
+// src/test/java/com/nexsys/util/TimingWheelTest.java
+package com.nexsys.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private TimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimingWheel(Duration.ofMillis(1), "test-wheel");
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        wheel.stop(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void testFiresAfterDelay() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        wheel.schedule(latch::countDown, Duration.ofMillis(50));
+
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    void testCancel() throws Exception {
+        AtomicInteger fired = new AtomicInteger();
+
+        ScheduledFuture<?> future = wheel.schedule(fired::incrementAndGet, Duration.ofMillis(50));
+        assertThat(wheel.pendingCount()).isEqualTo(1);
+
+        assertThat(future.cancel(false)).isTrue();
+        assertThat(wheel.pendingCount()).isZero();
+
+        Thread.sleep(100);
+        assertThat(fired).hasValue(0);
+        assertThat(future.isCancelled()).isTrue();
+    }
+
+    @Test
+    void testCascadesAcrossLevels() throws Exception {
+        // With a 1 ms tick, delays above 64 and 4096 ticks live on the upper levels first
+        List<Long> delays = List.of(0L, 3L, 63L, 64L, 65L, 700L, 4095L, 4200L);
+        CountDownLatch latch = new CountDownLatch(delays.size());
+        AtomicInteger early = new AtomicInteger();
+
+        for (long delay : delays) {
+            long due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+            wheel.schedule(() -> {
+                if (System.nanoTime() < due) {
+                    early.incrementAndGet();
+                }
+                latch.countDown();
+            }, Duration.ofMillis(delay));
+        }
+
+        assertThat(latch.await(6, TimeUnit.SECONDS)).isTrue();
+        assertThat(early).hasValue(0);
+        awaitNoPendingTimers();
+    }
+
+    @Test
+    void testManyTimers() throws Exception {
+        int count = 10_000;
+        CountDownLatch latch = new CountDownLatch(count / 2);
+        List<ScheduledFuture<?>> cancelled = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < count; i++) {
+            ScheduledFuture<?> future = wheel.schedule(latch::countDown,
+                    Duration.ofMillis(200 + random.nextInt(300)));
+            if (i % 2 == 0) {
+                cancelled.add(future);
+            }
+        }
+        cancelled.forEach(future -> future.cancel(false));
+
+        assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+        awaitNoPendingTimers();
+    }
+
+    @Test
+    void testRejectsAfterStop() throws Exception {
+        wheel.stop(Duration.ofSeconds(1));
+
+        assertThatThrownBy(() -> wheel.schedule(() -> {}, Duration.ZERO))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    private void awaitNoPendingTimers() throws InterruptedException {
+        // A timer counts as pending until its task has returned on the ticker thread
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (wheel.pendingCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(wheel.pendingCount()).isZero();
+    }
+}
\ No newline at end of file
@@ -3,6 +3,11 @@ package com.nexsys.util;
 
 import com.nexsys.util.units.*;
 import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+
 import static org.assertj.core.api.Assertions.*;
 
 class UnitConversionTest {
@@ -93,4 +98,110 @@ class UnitConversionTest {
         assertThat(UnitConverter.floorLog10Ratio(LengthUnit.METRE, LengthUnit.KILOMETRE))
                 .isEqualTo(0.0);
     }
+
+    @Test
+    void testEnergyDistanceConversion() {
+        // 20 kWh/100 km is 5 km/kWh, and back
+        assertThat(UnitConverter.convert(20, EnergyDistanceUnit.KILOWATT_HOUR_PER_100_KM,
+                EnergyDistanceUnit.KM_PER_KILOWATT_HOUR)).isCloseTo(5, within(1e-9));
+        assertThat(UnitConverter.convert(5, EnergyDistanceUnit.KM_PER_KILOWATT_HOUR,
+                EnergyDistanceUnit.KILOWATT_HOUR_PER_100_KM)).isCloseTo(20, within(1e-9));
+
+        // Linear within the same kind
+        assertThat(UnitConverter.convert(20, EnergyDistanceUnit.KILOWATT_HOUR_PER_100_KM,
+                EnergyDistanceUnit.WATT_HOUR_PER_KM)).isCloseTo(200, within(1e-9));
+    }
+
+    @Test
+    void testSameUnitReturnsValueUnchanged() {
+        assertThat(UnitConverter.convert(-0.0, TemperatureUnit.KELVIN, TemperatureUnit.KELVIN)).isEqualTo(-0.0);
+        assertThat(UnitConverter.convert(Double.NaN, SpeedUnit.BEAUFORT, SpeedUnit.BEAUFORT)).isNaN();
+    }
+
+    @Test
+    void testAllLinearConversionsAreConsistent() {
+        double value = 12.5;
+        for (Class<?> type : Unit.class.getPermittedSubclasses()) {
+            Unit[] units = (Unit[]) type.getEnumConstants();
+            for (Unit from : units) {
+                for (Unit to : units) {
+                    if (from == SpeedUnit.BEAUFORT || to == SpeedUnit.BEAUFORT
+                            || (from instanceof EnergyDistanceUnit f && f.isInverse() != ((EnergyDistanceUnit) to).isInverse())) {
+                        continue;
+                    }
+                    double converted = UnitConverter.convert(value, from, to);
+
+                    // Converting back, or through the family's first unit, gives the same result
+                    assertThat(UnitConverter.convert(converted, to, from))
+                            .as("%s -> %s -> %s", from, to, from)
+                            .isCloseTo(value, within(1e-9 * Math.abs(value)));
+                    double viaFirst = UnitConverter.convert(UnitConverter.convert(value, from, units[0]), units[0], to);
+                    assertThat(converted)
+                            .as("%s -> %s", from, to)
+                            .isCloseTo(viaFirst, within(1e-9 * Math.max(1, Math.abs(viaFirst))));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testConvertAllMatchesConvert() {
+        double[] source = {-40, 0, 32, 98.6, 212};
+        Unit[][] pairs = {
+                {TemperatureUnit.FAHRENHEIT, TemperatureUnit.CELSIUS},
+                {SpeedUnit.BEAUFORT, SpeedUnit.KILOMETRE_PER_HOUR},
+                {EnergyDistanceUnit.KM_PER_KILOWATT_HOUR, EnergyDistanceUnit.KILOWATT_HOUR_PER_100_KM},
+                {LengthUnit.METRE, LengthUnit.METRE}
+        };
+        for (Unit[] pair : pairs) {
+            double[] target = new double[source.length];
+
+            UnitConverter.convertAll(source, pair[0], pair[1], target);
+
+            for (int i = 0; i < source.length; i++) {
+                assertThat(target[i]).isEqualTo(UnitConverter.convert(source[i], pair[0], pair[1]));
+            }
+        }
+    }
+
+    @Test
+    void testConvertAllInPlaceAndOverlapping() {
+        double[] values = {0, 10, 20, 30, 40, 50};
+
+        UnitConverter.convertAll(values, LengthUnit.KILOMETRE, LengthUnit.METRE, values);
+        assertThat(values).containsExactly(0, 10_000, 20_000, 30_000, 40_000, 50_000);
+
+        // Shift right by one while converting back
+        UnitConverter.convertAll(values, 0, LengthUnit.METRE, LengthUnit.KILOMETRE, values, 1, 5);
+        assertThat(values).containsExactly(0, 0, 10, 20, 30, 40);
+    }
+
+    @Test
+    void testConvertAllBounds() {
+        assertThatThrownBy(() -> UnitConverter.convertAll(new double[3], LengthUnit.METRE, LengthUnit.FOOT, new double[2]))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> UnitConverter.convertAll(new double[3], LengthUnit.METRE, TemperatureUnit.CELSIUS, new double[3]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testConvertAllBuffers() {
+        DoubleBuffer source = DoubleBuffer.wrap(new double[]{0, 100, 37});
+        DoubleBuffer direct = ByteBuffer.allocateDirect(3 * Double.BYTES).asDoubleBuffer();
+
+        UnitConverter.convertAll(source, TemperatureUnit.CELSIUS, TemperatureUnit.FAHRENHEIT, direct);
+
+        assertThat(source.hasRemaining()).isFalse();
+        assertThat(direct.position()).isEqualTo(3);
+        assertThat(direct.get(0)).isCloseTo(32, within(1e-9));
+        assertThat(direct.get(1)).isCloseTo(212, within(1e-9));
+
+        DoubleBuffer heap = DoubleBuffer.allocate(3);
+        UnitConverter.convertAll(direct.flip(), TemperatureUnit.FAHRENHEIT, TemperatureUnit.CELSIUS, heap);
+        assertThat(heap.array()[2]).isCloseTo(37, within(1e-9));
+
+        assertThatThrownBy(() -> UnitConverter.convertAll(DoubleBuffer.allocate(4), TemperatureUnit.CELSIUS,
+                TemperatureUnit.KELVIN, DoubleBuffer.allocate(3)))
+                .isInstanceOf(BufferOverflowException.class);
+    }
 }
\ No newline at end of file
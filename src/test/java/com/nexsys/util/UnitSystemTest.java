@@ -69,4 +69,38 @@ class UnitSystemTest {
         assertThat(converted.unit()).isEqualTo(PressureUnit.PSI);
         assertThat(converted.value()).isEqualTo(10);
     }
+
+    @Test
+    void testConvertIntoMatchesConvert() {
+        UnitSystem metric = UnitSystem.metric();
+
+        double kpa = metric.convertInto(10, "pressure", PressureUnit.PSI);
+
+        assertThat(kpa).isEqualTo(metric.convert(10, "pressure", PressureUnit.PSI).value());
+        assertThat(metric.preferredUnit("pressure", PressureUnit.PSI)).isEqualTo(PressureUnit.KILOPASCAL);
+    }
+
+    @Test
+    void testConvertIntoWithoutConversionKeepsValue() {
+        UnitSystem usCustomary = UnitSystem.usCustomary();
+
+        assertThat(usCustomary.convertInto(20, "temperature", TemperatureUnit.CELSIUS)).isEqualTo(20);
+        assertThat(usCustomary.preferredUnit("temperature", TemperatureUnit.CELSIUS)).isEqualTo(TemperatureUnit.CELSIUS);
+        assertThat(usCustomary.convertInto(20, "pressure", PressureUnit.PSI)).isEqualTo(20);
+        assertThat(usCustomary.convertInto(20, null, PressureUnit.PSI)).isEqualTo(20);
+    }
+
+    @Test
+    void testDeviceClassIds() {
+        int windSpeed = UnitSystem.deviceClassId("wind_speed");
+
+        assertThat(windSpeed).isNotNegative();
+        assertThat(UnitSystem.deviceClassId("pressure")).isNotEqualTo(windSpeed);
+        assertThat(UnitSystem.deviceClassId("unknown_device")).isEqualTo(-1);
+
+        Quantity converted = UnitSystem.usCustomary().convert(10, windSpeed, SpeedUnit.METRE_PER_SECOND);
+        assertThat(converted.unit()).isEqualTo(SpeedUnit.MILE_PER_HOUR);
+        assertThat(converted.value()).isCloseTo(22.37, within(0.01));
+        assertThat(UnitSystem.metric().convertInto(10, -1, SpeedUnit.METRE_PER_SECOND)).isEqualTo(10);
+    }
 }
\ No newline at end of file